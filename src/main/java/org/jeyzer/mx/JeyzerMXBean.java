@@ -16,6 +16,7 @@ package org.jeyzer.mx;
 import java.util.List;
 import java.util.Map;
 
+import org.jeyzer.mx.event.JzrEventBatch;
 import org.jeyzer.mx.event.JzrEventInfo;
 import org.jeyzer.mx.event.JzrEventLevel;
 import org.jeyzer.mx.event.JzrPublisherEvent;
@@ -99,6 +100,42 @@ public interface JeyzerMXBean {
 	 * @return the list of monitoring events, including the consumed ones
 	 */
 	public List<JzrEventInfo> consumeEvents();
+	
+	/**
+	 * Get the monitoring events which changed since the given cursor and consume the ones which have been terminated.
+	 * Started events still open are returned only once, until terminated or cancelled.
+	 * Events changing during the call may be returned again on next call.
+	 * @param cursor   the cursor returned by the previous call. Any negative value returns all the available events
+	 * @return the event changes and the next cursor
+	 */
+	public JzrEventBatch consumeEventsSince(long cursor);
+	
+	/**
+	 * Same as {@link #consumeEventsSince(long) consumeEventsSince} with at-least-once delivery.
+	 * The returned batch is retained until acknowledged through the {@link #acknowledgeEventBatch(long) acknowledgeEventBatch} call.
+	 * Unacknowledged batches are returned again on next call, on top of the new event changes.
+	 * Retention is bounded : oldest unacknowledged batches get dropped once the retention limit is reached.
+	 * @param cursor   the cursor returned by the previous call. Any negative value returns all the available events
+	 * @return the event changes, including the unacknowledged ones, the batch id and the next cursor
+	 */
+	public JzrEventBatch consumeEventBatch(long cursor);
+	
+	/**
+	 * Acknowledge the given event batch and all the previous ones, releasing them from the retention
+	 * @param batchId   the batch id to acknowledge
+	 */
+	public void acknowledgeEventBatch(long batchId);
+
+	/**
+	 * Blocking variant of {@link #consumeEvents() consumeEvents}.
+	 * Waits until the number of event changes (starts, terminations and cancellations) since the last consumption reaches the given batch size, 
+	 * a critical event gets generated since the last consumption or the timeout expires.
+	 * Timeout is capped to 60 seconds.
+	 * @param timeout    the maximum waiting time in ms
+	 * @param batchSize  the number of pending event changes which ends the wait
+	 * @return the list of monitoring events, including the consumed ones
+	 */
+	public List<JzrEventInfo> awaitAndConsumeEvents(long timeout, int batchSize);
 
 	/**
 	 * Get the Jeyzer publish library version
@@ -119,6 +156,15 @@ public interface JeyzerMXBean {
 	 */
 	public List<JzrPublisherEvent> consumePublisherEvents();	
 	
+	/**
+	 * Blocking variant of {@link #consumePublisherEvents() consumePublisherEvents}.
+	 * Waits until a publisher event is available or the timeout expires.
+	 * Timeout is capped to 60 seconds.
+	 * @param timeout    the maximum waiting time in ms
+	 * @return the list of consumed publisher events
+	 */
+	public List<JzrPublisherEvent> awaitAndConsumePublisherEvents(long timeout);
+	
 	/**
 	 * Suspend the data collection
 	 */
@@ -153,4 +199,19 @@ public interface JeyzerMXBean {
 	 * @return true if active
 	 */
 	public boolean isEventCollectionActive(JzrEventLevel level);
+	
+	/**
+	 * Get the estimated memory retained by the monitoring events waiting for consumption
+	 * @param level    the Jeyzer event level
+	 * @return the estimated size in bytes
+	 */
+	public long getEventsMemoryUsage(JzrEventLevel level);
+	
+	/**
+	 * Get the event origins (event code / source / service) which generated the highest number of monitoring events, 
+	 * including the deduplicated, sampled, rate limited and dropped ones.
+	 * Counts are estimations, which may exceed the real ones.
+	 * @return the top 20 event origins with their estimated event counts, highest first
+	 */
+	public Map<String, Long> getTopEventOrigins();
 }
@@ -0,0 +1,51 @@
+package org.jeyzer.mx.event;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.List;
+
+/**
+ * <p>JzrEventBatch is a bean class holding the monitoring event changes since a given cursor<br></p>
+ * Each monitoring event state change (start, termination, cancellation) gets a sequence number.<br>
+ * The batch contains the events which changed after the requested cursor,
+ * the ids of the previously published events which got cancelled since
+ * and the cursor to request on next collection.<br>
+ * Batches obtained through acknowledged consumption carry a batch id which must be acknowledged once the batch is processed.<br>
+ */
+public interface JzrEventBatch {
+
+	/**
+	 * Get the batch id to acknowledge. 
+	 * Zero if the batch doesn't require any acknowledgement
+	 * @return the batch id
+	 */
+	public long getBatchId();
+
+	/**
+	 * Get the cursor to pass on next collection
+	 * @return the next cursor
+	 */
+	public long getCursor();
+
+	/**
+	 * Get the events started or terminated since the requested cursor
+	 * @return the list of monitoring events
+	 */
+	public List<JzrEventInfo> getEvents();
+
+	/**
+	 * Get the ids of the previously published events which got cancelled since the requested cursor
+	 * @return the list of cancelled event ids
+	 */
+	public List<String> getCancelledEventIds();
+}
@@ -12,6 +12,7 @@ package org.jeyzer.mx.event;
  * ----------------------------LICENSE_END----------------------------
  */
 
+import java.util.List;
 
 /**
  * <p>JzrEventInfo is a bean class holding monitoring event information<br></p> 
@@ -87,4 +88,28 @@ public interface JzrEventInfo {
 	 * @return true if one shot
 	 */
 	public boolean isOneshot();
+	/**
+	 * Get the number of similar events suppressed in favor of this one : 
+	 * events with same source, service, code and message within the deduplication window.
+	 * @return the number of suppressed events
+	 */
+	public int getSuppressedCount();
+	/**
+	 * Get the number of oneshot events with same source, service and code folded in this one within the roll up window.
+	 * @return the number of rolled up events, 0 if this event is not a summary event
+	 */
+	public int getRolledUpCount();
+	/**
+	 * Get the ratio of the fired events of the same level kept by the adaptive sampling when this event got fired. 
+	 * 1 if not sampled. Event counts can be scaled back by dividing them by this ratio.
+	 * @return the sampling ratio, between 0 (excluded) and 1
+	 */
+	public float getSamplingRatio();
+	/**
+	 * Get a sample of the distinct messages of the oneshot events rolled up in this one, including its own message. 
+	 * Bounded to 10 messages. Empty if no event got rolled up. 
+	 * The end time of such summary event is the time of the last rolled up event.
+	 * @return the rolled up messages
+	 */
+	public List<String> getRolledUpMessages();
 }
@@ -37,15 +37,31 @@ public enum JzrPublisherEventCode {
 	 * Jeyzer recording collection.
 	 */
 	JZR_PUB_003(INFO, VERY_LOW, "Jeyzer recording collection."),
+	/**
+	 * Unacknowledged applicative events dropped from the retention. Increase the <code>events.acknowledgement.retention.limit</code> init property or check the Jeyzer Recorder collection.
+	 */
+	JZR_PUB_004(WARNING, HIGH, "Unacknowledged applicative events dropped from the retention : @token@ events may not have reached the Jeyzer Recorder. Increase the events.acknowledgement.retention.limit init property or check the Jeyzer Recorder collection."),
+	/**
+	 * Applicative events expired before their collection. Check the Jeyzer Recorder collection or increase the <code>events.expiry.age</code> init property.
+	 */
+	JZR_PUB_005(WARNING, MEDIUM, "Applicative events expired before their collection : @token@ events did not reach the Jeyzer Recorder. Check the Jeyzer Recorder collection or increase the events.expiry.age init property."),
+	/**
+	 * Applicative events dropped by the rate limiting since last collection. Review the applicative event generation or increase the <code>events.rate.limit</code> init properties.
+	 */
+	JZR_PUB_006(WARNING, MEDIUM, "Applicative events dropped by the rate limiting : @token@. Review the applicative event generation or increase the events.rate.limit init properties."),
+	/**
+	 * Too many distinct values of an applicative event attribute : new values get collapsed into the <code>[overflow]</code> value. Review the applicative event generation (identifiers or timestamps in sources, services or messages) or increase the <code>events.source.cardinality.limit</code>, <code>events.service.cardinality.limit</code> or <code>events.message.cardinality.limit</code> init properties.
+	 */
+	JZR_PUB_007(WARNING, HIGH, "Too many distinct values of the applicative event @token@ : new values get collapsed into the [overflow] value. Review the applicative event generation (identifiers or timestamps in sources, services or messages) or increase the events.source.cardinality.limit, events.service.cardinality.limit or events.message.cardinality.limit init properties."),
 
 	
 	// -------------------------------------------------
 	// Publisher events for critical applicative events
 	// -------------------------------------------------
 	/**
-	 * Applicative critical event list full. Oldest critical events may be lost. Increase the <code>events.critical.limit</code> init property to accept more events or review the applicative critical event generation to reduce it.
+	 * Applicative critical event list full. Oldest critical events may be lost. Increase the <code>events.critical.limit</code> or <code>events.critical.max.bytes</code> init properties to accept more events or review the applicative critical event generation to reduce it.
 	 */
-	JZR_PUB_101(WARNING, VERY_HIGH, "Applicative critical event list full. Events created after @token@ (process time) may be lost. Increase the events.critical.limit init property to accept more events or review the applicative critical event generation to reduce it."),
+	JZR_PUB_101(WARNING, VERY_HIGH, "Applicative critical event list full. Events created after @token@ (process time) may be lost. Increase the events.critical.limit or events.critical.max.bytes init properties to accept more events or review the applicative critical event generation to reduce it."),
 	/**
 	 * Applicative critical event collection suspended at initialization time.
 	 */
@@ -64,9 +80,9 @@ public enum JzrPublisherEventCode {
 	// Publisher events for warning applicative events
 	// -------------------------------------------------
 	/**
-	 * Applicative warning event list full. Oldest warning events may be lost. Increase the <code>events.warning.limit</code> init property to accept more events or review the applicative warning event generation to reduce it.
+	 * Applicative warning event list full. Oldest warning events may be lost. Increase the <code>events.warning.limit</code> or <code>events.warning.max.bytes</code> init properties to accept more events or review the applicative warning event generation to reduce it.
 	 */
-	JZR_PUB_201(WARNING, HIGH, "Applicative warning event list full. Events created after @token@ (process time) may be lost. Increase the events.warning.limit init property to accept more events or review the applicative warning event generation to reduce it."),
+	JZR_PUB_201(WARNING, HIGH, "Applicative warning event list full. Events created after @token@ (process time) may be lost. Increase the events.warning.limit or events.warning.max.bytes init properties to accept more events or review the applicative warning event generation to reduce it."),
 	/**
 	 * Applicative warning event collection suspended at initialization time.
 	 */
@@ -85,9 +101,9 @@ public enum JzrPublisherEventCode {
 	// Publisher events for info applicative events
 	// -------------------------------------------------
 	/**
-	 * Applicative info event list full. Oldest info events may be lost. Increase the <code>events.info.limit</code> init property to accept more events or review the applicative info event generation to reduce it.
+	 * Applicative info event list full. Oldest info events may be lost. Increase the <code>events.info.limit</code> or <code>events.info.max.bytes</code> init properties to accept more events or review the applicative info event generation to reduce it.
 	 */
-	JZR_PUB_301(WARNING, MEDIUM, "Applicative info event list full. Events created after @token@ (process time) may be lost. Increase the events.info.limit init property to accept more events or review the applicative info event generation to reduce it."),
+	JZR_PUB_301(WARNING, MEDIUM, "Applicative info event list full. Events created after @token@ (process time) may be lost. Increase the events.info.limit or events.info.max.bytes init properties to accept more events or review the applicative info event generation to reduce it."),
 	/**
 	 * Applicative info event collection suspended at initialization time.
 	 */
@@ -24,14 +24,17 @@ import java.net.URL;
 import java.net.UnknownHostException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
@@ -39,6 +42,10 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
@@ -51,6 +58,7 @@ import javax.management.ObjectName;
 
 import org.jeyzer.mx.JeyzerMXBean;
 import org.jeyzer.mx.JzrThreadInfo;
+import org.jeyzer.mx.event.JzrEventBatch;
 import org.jeyzer.mx.event.JzrEventCode;
 import org.jeyzer.mx.event.JzrEventInfo;
 import org.jeyzer.mx.event.JzrEventLevel;
@@ -59,6 +67,8 @@ import org.jeyzer.mx.event.JzrEventSubLevel;
 import org.jeyzer.mx.event.JzrPublisherEvent;
 import org.jeyzer.mx.event.JzrPublisherEventCode;
 import org.jeyzer.publish.event.JzrEvent;
+import org.jeyzer.publish.event.JzrFireStatus;
+import org.jeyzer.publish.event.JzrStandardEvent;
 
 /**
  * <p>
@@ -193,12 +203,29 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 	 */
 	public abstract JzrMonitorHandler getMonitorHandler(String source, String service);	
 	
+	/**
+	 * Get a Jeyzer monitor handler to generate events, reporting the detailed outcome of the fire and start calls
+	 * @param source the applicative source. Nullable. By default the process name if available.
+	 * @param service the dynamic process context parameter value. Can be null
+	 * @return the Jeyzer status monitor handler
+	 */
+	public abstract JzrStatusMonitorHandler getStatusMonitorHandler(String source, String service);
+	
 	/**
 	 * Get a Jeyzer action handler
 	 * @return the Jeyzer action handler
 	 */
 	public abstract JzrActionHandler getActionHandler();
 	
+	/**
+	 * Pre-register the event codes of the given enum. Optional.
+	 * Registered codes get a dense ordinal : their per code settings (deduplication and roll up windows, time to live, rate limit)
+	 * are then looked up in flat tables instead of being searched by code abbreviation on each fired or started event.
+	 * Registering the same enum twice has no effect.
+	 * @param codeClass the event code enum class
+	 */
+	public abstract void registerCodes(Class<? extends Enum<? extends JzrEventCode>> codeClass);
+	
 	
 	void register(){
 		ObjectName mxbeanName = null;
@@ -291,6 +318,41 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 		}
 	}
 	
+	private static final class JzrEventBatchImpl implements JzrEventBatch{
+		
+		private long batchId;
+		private long cursor;
+		private List<JzrEventInfo> events;
+		private List<String> cancelledEventIds;
+		
+		public JzrEventBatchImpl(long batchId, long cursor, List<JzrEventInfo> events, List<String> cancelledEventIds) {
+			this.batchId = batchId;
+			this.cursor = cursor;
+			this.events = events;
+			this.cancelledEventIds = cancelledEventIds;
+		}
+
+		@Override
+		public long getBatchId() {
+			return batchId;
+		}
+
+		@Override
+		public long getCursor() {
+			return cursor;
+		}
+
+		@Override
+		public List<JzrEventInfo> getEvents() {
+			return events;
+		}
+
+		@Override
+		public List<String> getCancelledEventIds() {
+			return cancelledEventIds;
+		}
+	}
+	
 	private static final class JeyzerPublisherImpl extends JeyzerPublisher{
 		
 		// Initialization is optional
@@ -357,6 +419,10 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 			
 			eventMgr.init(props);
 			
+			if ((eventMgr.isStartedEventExpiryEnabled() || eventMgr.isEventExpiryEnabled()) && !disableReaper)
+				// otherwise performed during event consumption only
+				executor.scheduleWithFixedDelay(new EventExpiryTask(), 1, 1, TimeUnit.SECONDS);
+			
 			return true;
 		}
 		
@@ -374,6 +440,16 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 		public boolean isEventCollectionActive(JzrEventLevel level) {
 			return this.eventMgr.isEventCollectionActive(level);
 		}
+		
+		@Override
+		public long getEventsMemoryUsage(JzrEventLevel level) {
+			return this.eventMgr.getEventsMemoryUsage(level);
+		}
+		
+		@Override
+		public Map<String, Long> getTopEventOrigins() {
+			return this.eventMgr.getTopEventOrigins();
+		}
 
 		@Override
 		public void suspendDataCollection() {
@@ -415,6 +491,11 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 			return new JzrActionHandlerImpl();
 		}
 		
+		@Override
+		public void registerCodes(Class<? extends Enum<? extends JzrEventCode>> codeClass) {
+			this.eventMgr.registerCodes(codeClass);
+		}
+		
 		@Override
 		public String getProfileName() {
 			return profile;
@@ -539,17 +620,70 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 				this.eventMgr.addPublisherEvent(publisherEvent);
 			}
 			
-			if (eventMgr.isEmpty())
+			if (eventMgr.isEmpty()) {
+				eventMgr.markFetched();
 				return new ArrayList<>(); // no need to do below processing
+			}
 
 			this.eventMgr.terminateLocalOrphanEvents();
+			this.eventMgr.expireStartedEvents();
+			this.eventMgr.expireEvents();
 
 			return this.eventMgr.fetchEventsToPublish();
 		}
+		
+		@Override
+		public JzrEventBatch consumeEventsSince(long cursor) {
+			if (generateJzrRecorderCollectionEvent) {
+				JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(
+						JzrPublisherEventCode.JZR_PUB_003);
+				this.eventMgr.addPublisherEvent(publisherEvent);
+			}
+			
+			if (eventMgr.isEmpty())
+				return new JzrEventBatchImpl(0, eventMgr.markFetched(), new ArrayList<JzrEventInfo>(), new ArrayList<String>()); // no need to do below processing
+			
+			this.eventMgr.terminateLocalOrphanEvents();
+			this.eventMgr.expireStartedEvents();
+			this.eventMgr.expireEvents();
+			
+			return this.eventMgr.fetchEventsToPublish(cursor);
+		}
+		
+		@Override
+		public List<JzrEventInfo> awaitAndConsumeEvents(long timeout, int batchSize) {
+			this.eventMgr.awaitEvents(timeout, batchSize);
+			return consumeEvents();
+		}
+		
+		@Override
+		public JzrEventBatch consumeEventBatch(long cursor) {
+			if (generateJzrRecorderCollectionEvent) {
+				JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(
+						JzrPublisherEventCode.JZR_PUB_003);
+				this.eventMgr.addPublisherEvent(publisherEvent);
+			}
+			
+			this.eventMgr.terminateLocalOrphanEvents();
+			this.eventMgr.expireStartedEvents();
+			this.eventMgr.expireEvents();
+			
+			return this.eventMgr.fetchAcknowledgeableEvents(cursor);
+		}
+		
+		@Override
+		public void acknowledgeEventBatch(long batchId) {
+			this.eventMgr.acknowledgeEventBatch(batchId);
+		}
 
 
 		@Override
 		public JzrMonitorHandler getMonitorHandler(String source, String service) {
+			return getStatusMonitorHandler(source, service);
+		}
+
+		@Override
+		public JzrStatusMonitorHandler getStatusMonitorHandler(String source, String service) {
 			return new JzrMonitorHandlerImpl(
 					source, 
 					service, 
@@ -613,11 +747,11 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 
 			// get current live thread ids
 			ThreadMXBean tmbean = ManagementFactory.getThreadMXBean();
-			final long[] threadIds = tmbean.getAllThreadIds();
+			final JzrThreadIdSet liveThreadIds = new JzrThreadIdSet(tmbean.getAllThreadIds());
 			
 			// find the dead thread id
 			for (JzrThreadInfo candidate : candidateList){
-				if (isDeadThread(threadIds, candidate.getThreadId()))
+				if (!liveThreadIds.contains(candidate.getThreadId()))
 					deadList.add(candidate);
 			}
 
@@ -627,15 +761,6 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 			}
 		}
 
-		private boolean isDeadThread(final long[] threadIds, final long id) {
-			for (int i=0; i<threadIds.length; i++){
-				if (id == threadIds[i]){
-					return false;
-				}
-			}
-			return true;
-		}
-		
 		/*
 		 * Responsible to reap old entries in case application doesn't close the actions (cf. JzrActionHandler)
 		 * This is to prevent memory leaks.
@@ -652,6 +777,23 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 			}
 		}
 		
+		/*
+		 * Terminates or cancels the started events which exceeded their time to live, and drops the events older than the expiry age.
+		 * Running every second on the reaper thread, if any time to live or expiry age is configured
+		 */
+		private static final class EventExpiryTask implements Runnable{
+			@Override
+			public void run() {
+				try{
+					JzrEventManager eventMgr = ((JeyzerPublisherImpl)publisher).eventMgr;
+					eventMgr.expireStartedEvents();
+					eventMgr.expireEvents();
+				}catch(Exception ex){
+					// ignore
+				}
+			}
+		}
+		
 		private static final class DeadThreadInfoReaperThreadFactory implements ThreadFactory {
 			@Override
 			public Thread newThread(Runnable r) {
@@ -668,21 +810,117 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 		private static final class JzrEventManager{
 
 			private static final int DEFAULT_EVENTS_LIMIT_PER_LEVEL = 1000;
+			private static final int DEFAULT_ACKNOWLEDGEMENT_RETENTION_LIMIT = 10000;
+			private static final long MAX_AWAIT_TIMEOUT = 60000L;
+			private static final int MAX_EVENTS_STRIPES = 64;
+			private static final String EVICTION_POLICY_PRIORITY = "priority";
+			private static final String EVICTION_POLICY_FAIR = "fair";
+			private static final String FAIR_SHARE_KEY_SERVICE = "service";
+			private static final String STARTED_EVENT_EXPIRY_ACTION_CANCEL = "cancel";
+			private static final long TIMING_WHEEL_TICK = 1000L;
+			private static final long EXPIRY_SLICE_DURATION = 10000L;
+			private static final long DEFAULT_DEDUP_WINDOW = 5000L;
+			private static final int MAX_RATE_LIMIT_DETAILS = 10;
+			private static final int TOP_EVENT_ORIGINS = 20;
+			
+			private static final Comparator<JzrEventInfoImpl> START_TIME_COMPARATOR = new Comparator<JzrEventInfoImpl>() {
+				@Override
+				public int compare(JzrEventInfoImpl evt1, JzrEventInfoImpl evt2) {
+					return Long.compare(evt1.getStartTime(), evt2.getStartTime());
+				}
+			};
+			
+			// Incremented on each event state change : start, termination and cancellation
+			private AtomicLong sequence = new AtomicLong(0);
+			
+			// Consumed batches waiting for acknowledgement, oldest first. Guarded by pendingBatchesLock
+			private LinkedList<JzrEventBatchImpl> pendingBatches = new LinkedList<>();
+			// Retained events and cancelled event ids
+			private int pendingEntryCount = 0;
+			private long lastBatchId = 0;
+			private Object pendingBatchesLock = new Object();
+			private volatile int retentionLimit = DEFAULT_ACKNOWLEDGEMENT_RETENTION_LIMIT;
+			
+			// Long polling consumers. Producers signal only when consumers are waiting. Guarded by availabilityLock
+			private Object availabilityLock = new Object();
+			private volatile int waitingConsumers = 0;
+			// Sequence read by the last fetch : changes beyond it are pending
+			private volatile long lastFetchedSequence = 0;
+			// Sequence of the last critical event added
+			private AtomicLong lastCriticalSequence = new AtomicLong(0);
 			
-			private JzrEventInfoImplGroup infoEventGroup = new JzrEventInfoImplGroup(JzrEventLevel.INFO);
-			private JzrEventInfoImplGroup warnEventGroup = new JzrEventInfoImplGroup(JzrEventLevel.WARNING);
-			private JzrEventInfoImplGroup criticalEventGroup = new JzrEventInfoImplGroup(JzrEventLevel.CRITICAL);
-
 			private List<JzrPublisherEvent> publisherEvents = Collections.synchronizedList(new ArrayList<JzrPublisherEvent>());
+			
+			private JzrEventInfoImplGroup infoEventGroup = new JzrEventInfoImplGroup(JzrEventLevel.INFO, sequence, publisherEvents);
+			private JzrEventInfoImplGroup warnEventGroup = new JzrEventInfoImplGroup(JzrEventLevel.WARNING, sequence, publisherEvents);
+			private JzrEventInfoImplGroup criticalEventGroup = new JzrEventInfoImplGroup(JzrEventLevel.CRITICAL, sequence, publisherEvents);
+			// Indexed by level ordinal
+			private JzrEventInfoImplGroup[] eventGroups = new JzrEventInfoImplGroup[] {infoEventGroup, warnEventGroup, criticalEventGroup};
+			
+			// Pre-registered event codes
+			private JzrEventCodeRegistry codeRegistry = new JzrEventCodeRegistry();
+			
+			// Null if no rate limit is configured
+			private volatile JzrEventRateLimiter rateLimiter;
+			
+			// Null if no sampling is configured. Critical events are never sampled
+			private volatile JzrEventSampler infoEventSampler;
+			private volatile JzrEventSampler warnEventSampler;
+			
+			// Event generation per origin, whatever the event outcome
+			private JzrEventOriginSketch originSketch = new JzrEventOriginSketch(TOP_EVENT_ORIGINS);
+			
+			// Null if no cardinality limit is configured
+			private volatile JzrEventCardinalityGuard sourceGuard;
+			private volatile JzrEventCardinalityGuard serviceGuard;
+			// Per event code abbreviation. Guards get created on first message if a limit is configured
+			private ConcurrentHashMap<String, JzrEventCardinalityGuard> messageGuards = new ConcurrentHashMap<>();
+			private volatile int messageCardinalityLimit = 0;
+			
+			// Null if no started event time to live is configured
+			private volatile JzrEventTimingWheel<JzrEventInfoImpl> timingWheel;
+			private boolean cancelExpiredStartedEvents = false;
 
 			public void init(Properties props) {
 				initEventLimit(criticalEventGroup, JeyzerPublisherInit.EVENTS_CRITICAL_LIMIT_PROPERTY, props);
 				initEventLimit(warnEventGroup, JeyzerPublisherInit.EVENTS_WARNING_LIMIT_PROPERTY, props);
 				initEventLimit(infoEventGroup, JeyzerPublisherInit.EVENTS_INFO_LIMIT_PROPERTY, props);
 				
+				initEventMemoryLimit(criticalEventGroup, JeyzerPublisherInit.EVENTS_CRITICAL_MAX_BYTES_PROPERTY, props);
+				initEventMemoryLimit(warnEventGroup, JeyzerPublisherInit.EVENTS_WARNING_MAX_BYTES_PROPERTY, props);
+				initEventMemoryLimit(infoEventGroup, JeyzerPublisherInit.EVENTS_INFO_MAX_BYTES_PROPERTY, props);
+				
+				initDedupWindow(criticalEventGroup, JeyzerPublisherInit.EVENTS_CRITICAL_DEDUP_WINDOW_PROPERTY, props);
+				initDedupWindow(warnEventGroup, JeyzerPublisherInit.EVENTS_WARNING_DEDUP_WINDOW_PROPERTY, props);
+				initDedupWindow(infoEventGroup, JeyzerPublisherInit.EVENTS_INFO_DEDUP_WINDOW_PROPERTY, props);
+				initCodeDedupWindows(props);
+				initCodeRollUpWindows(props);
+				
+				initEventStriping(props);
+				
+				initEventSlabs(props);
+				
+				initEvictionPolicy(props);
+				
+				initEventExpiry(props);
+				
+				initRateLimiting(props);
+				
+				initCardinalityGuards(props);
+				
+				initStartedEventExpiry(props);
+				
+				this.warnEventSampler = initEventSampler(JeyzerPublisherInit.EVENTS_WARNING_SAMPLING_TARGET_RATE_PROPERTY, props);
+				this.infoEventSampler = initEventSampler(JeyzerPublisherInit.EVENTS_INFO_SAMPLING_TARGET_RATE_PROPERTY, props);
+				
+				initRetentionLimit(props);
+				
 				initEventCollection(criticalEventGroup, JeyzerPublisherInit.EVENTS_CRITICAL_DISABLE_COLLECTION_PROPERTY, props, JzrPublisherEventCode.JZR_PUB_102);
 				initEventCollection(warnEventGroup, JeyzerPublisherInit.EVENTS_WARNING_DISABLE_COLLECTION_PROPERTY, props, JzrPublisherEventCode.JZR_PUB_202);
 				initEventCollection(infoEventGroup, JeyzerPublisherInit.EVENTS_INFO_DISABLE_COLLECTION_PROPERTY, props, JzrPublisherEventCode.JZR_PUB_302);
+				
+				// codes may have been registered before
+				resolveCodes();
 			}
 			
 			private void initEventCollection(JzrEventInfoImplGroup eventGroup, String propertyName, Properties props, JzrPublisherEventCode code) {
@@ -690,7 +928,7 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 				if (disableDataCollection) {
 					eventGroup.suspendEventCollection();
 					JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(code);
-					publisherEvents.add(publisherEvent);
+					addPublisherEvent(publisherEvent);
 				}
 			}
 
@@ -699,6 +937,15 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 				return eventGroup.isEventCollectionActive();
 			}
 
+			public long getEventsMemoryUsage(JzrEventLevel level) {
+				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(level);
+				return eventGroup.getMemoryUsage();
+			}
+			
+			public Map<String, Long> getTopEventOrigins() {
+				return originSketch.getTopOrigins();
+			}
+
 			public void suspendEventCollection(JzrEventLevel level) {
 				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(level);
 				if (!eventGroup.isEventCollectionActive())
@@ -707,7 +954,7 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 				eventGroup.suspendEventCollection();
 				
 				JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(getSuspendedCodeAtRuntime(level));
-				publisherEvents.add(publisherEvent);
+				addPublisherEvent(publisherEvent);
 			}
 
 			public void resumeEventCollection(JzrEventLevel level) {
@@ -718,157 +965,779 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 				eventGroup.resumeEventCollection();
 				
 				JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(getResumedCodeAtRuntime(level));
-				publisherEvents.add(publisherEvent);
+				addPublisherEvent(publisherEvent);
 			}
 
-			private void initEventLimit(JzrEventInfoImplGroup group, String eventsLimitProperty, Properties props) {
-				String value = props.getProperty(eventsLimitProperty);
+			private void initEventStriping(Properties props) {
+				boolean enableStriping = Boolean.parseBoolean(props.getProperty(JeyzerPublisherInit.EVENTS_ENABLE_STRIPING_PROPERTY, Boolean.FALSE.toString()));
+				if (!enableStriping)
+					return;
+				
+				// power of 2 for cheap stripe selection
+				int stripeCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors());
+				if (stripeCount < Runtime.getRuntime().availableProcessors())
+					stripeCount = stripeCount << 1;
+				stripeCount = Math.min(stripeCount, MAX_EVENTS_STRIPES);
+				
+				criticalEventGroup.setStripeCount(stripeCount);
+				warnEventGroup.setStripeCount(stripeCount);
+				infoEventGroup.setStripeCount(stripeCount);
+			}
+
+			private void initEventSlabs(Properties props) {
+				boolean enableSlabs = Boolean.parseBoolean(props.getProperty(JeyzerPublisherInit.EVENTS_ENABLE_SLAB_PROPERTY, Boolean.FALSE.toString()));
+				if (!enableSlabs)
+					return;
+				
+				// sized on the event limits : must come after their initialization
+				criticalEventGroup.enableSlab();
+				warnEventGroup.enableSlab();
+				infoEventGroup.enableSlab();
+			}
+
+			private void initEventExpiry(Properties props) {
+				String value = props.getProperty(JeyzerPublisherInit.EVENTS_EXPIRY_AGE_PROPERTY);
 				if (value == null)
-					return; // stay with default
+					return; // stay with default : no expiry
 				try {
-					int limit = Integer.parseInt(value);
-					group.setEventsLimit(limit);
+					long expiryAge = Long.parseLong(value);
+					if (expiryAge > 0) {
+						criticalEventGroup.setExpiryAge(expiryAge);
+						warnEventGroup.setExpiryAge(expiryAge);
+						infoEventGroup.setExpiryAge(expiryAge);
+					}
 				}catch(NumberFormatException ex) {
 					// stay with default
 				}
 			}
 
-			public boolean add(JzrEventInfoImpl evtInfo) {
-				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(evtInfo.getCode().getLevel());
-				return eventGroup.addEvent(evtInfo, publisherEvents);
-			}
-			
-			public void addPublisherEvent(JzrPublisherEvent publisherEvent) {
-				this.publisherEvents.add(publisherEvent);
+			private void initEvictionPolicy(Properties props) {
+				String policy = props.getProperty(JeyzerPublisherInit.EVENTS_EVICTION_POLICY_PROPERTY);
+				if (EVICTION_POLICY_PRIORITY.equalsIgnoreCase(policy)) {
+					criticalEventGroup.setPriorityEviction(true);
+					warnEventGroup.setPriorityEviction(true);
+					infoEventGroup.setPriorityEviction(true);
+				}
+				else if (EVICTION_POLICY_FAIR.equalsIgnoreCase(policy)) {
+					boolean perService = FAIR_SHARE_KEY_SERVICE.equalsIgnoreCase(props.getProperty(JeyzerPublisherInit.EVENTS_FAIR_SHARE_KEY_PROPERTY));
+					Map<String, Long> weights = loadShareWeights(props);
+					criticalEventGroup.setFairShareEviction(weights, perService);
+					warnEventGroup.setFairShareEviction(weights, perService);
+					infoEventGroup.setFairShareEviction(weights, perService);
+				}
+				// otherwise stay with default : oldest first
 			}
 
-			public List<JzrEventInfo> fetchEventsToPublish() {
-				List<JzrEventInfo> eventToPublish = new ArrayList<>();
-
-				this.criticalEventGroup.fetchEventsToPublish(eventToPublish);
-				this.warnEventGroup.fetchEventsToPublish(eventToPublish);
-				this.infoEventGroup.fetchEventsToPublish(eventToPublish);
-				
-				return eventToPublish;
+			private void initRetentionLimit(Properties props) {
+				String value = props.getProperty(JeyzerPublisherInit.EVENTS_ACKNOWLEDGEMENT_RETENTION_LIMIT_PROPERTY);
+				if (value == null)
+					return; // stay with default
+				try {
+					int limit = Integer.parseInt(value);
+					if (limit > 0)
+						this.retentionLimit = limit;
+				}catch(NumberFormatException ex) {
+					// stay with default
+				}
 			}
-			
-			public List<JzrEventInfo> getEvents() {
-				List<JzrEventInfo> events = new ArrayList<>();
 
-				events.addAll(this.criticalEventGroup.getEvents());
-				events.addAll(this.warnEventGroup.getEvents());
-				events.addAll(this.infoEventGroup.getEvents());
-				
-				return events;
+			private void initDedupWindow(JzrEventInfoImplGroup group, String dedupWindowProperty, Properties props) {
+				String value = props.getProperty(dedupWindowProperty);
+				if (value == null)
+					return; // stay with default
+				try {
+					long window = Long.parseLong(value);
+					if (window >= 0)
+						group.setDedupWindow(window);
+				}catch(NumberFormatException ex) {
+					// stay with default
+				}
 			}
 
-			public List<JzrPublisherEvent> fetchPublisherEvents() {
-				List<JzrPublisherEvent> eventsToPublish = new ArrayList<>();
-				
-				eventsToPublish.addAll(this.publisherEvents);
-				this.publisherEvents.removeAll(eventsToPublish); // remove only those ones in case new just got inserted
-				
-				return eventsToPublish;
-			}
-			
-			public List<JzrPublisherEvent> getPublisherEvents() {
-				List<JzrPublisherEvent> events = new ArrayList<>();
-				
-				events.addAll(this.publisherEvents);
+			private void initCodeDedupWindows(Properties props) {
+				Map<String, Long> codeWindows = loadCodeProperties(JeyzerPublisherInit.EVENTS_DEDUP_WINDOW_PROPERTY_PREFIX, props);
+				if (codeWindows.isEmpty())
+					return;
 				
-				return events;
+				criticalEventGroup.setCodeDedupWindows(codeWindows);
+				warnEventGroup.setCodeDedupWindows(codeWindows);
+				infoEventGroup.setCodeDedupWindows(codeWindows);
 			}
 
-			public boolean isEmpty() {
-				return this.criticalEventGroup.isEmpty() 
-						&& this.warnEventGroup.isEmpty()
-						&& this.infoEventGroup.isEmpty();
+			private JzrEventSampler initEventSampler(String targetRateProperty, Properties props) {
+				String value = props.getProperty(targetRateProperty);
+				if (value == null)
+					return null; // no sampling
+				try {
+					long targetRate = Long.parseLong(value);
+					if (targetRate > 0)
+						return new JzrEventSampler(targetRate);
+				}catch(NumberFormatException ex) {
+					// no sampling
+				}
+				return null;
 			}
 
-			public void terminateLocalOrphanEvents() {
-				// get current live thread ids
-				ThreadMXBean tmbean = ManagementFactory.getThreadMXBean();
-				final long[] threadIds = tmbean.getAllThreadIds();
+			private void initCodeRollUpWindows(Properties props) {
+				Map<String, Long> codeWindows = loadCodeProperties(JeyzerPublisherInit.EVENTS_ROLLUP_WINDOW_PROPERTY_PREFIX, props);
+				if (codeWindows.isEmpty())
+					return;
 				
-				this.criticalEventGroup.terminateLocalOrphanEvents(threadIds);
-				this.warnEventGroup.terminateLocalOrphanEvents(threadIds);
-				this.infoEventGroup.terminateLocalOrphanEvents(threadIds);
+				criticalEventGroup.setCodeRollUpWindows(codeWindows);
+				warnEventGroup.setCodeRollUpWindows(codeWindows);
+				infoEventGroup.setCodeRollUpWindows(codeWindows);
 			}
 
-			public boolean terminateEvent(JzrEvent event) {
-				if (event == null || event.getId() == null || event.getId().isEmpty())
-					return false;
+			private void initRateLimiting(Properties props) {
+				long defaultRate = 0;
+				int burst = 0;
+				try {
+					defaultRate = Long.parseLong(props.getProperty(JeyzerPublisherInit.EVENTS_RATE_LIMIT_PROPERTY, "0"));
+					burst = Integer.parseInt(props.getProperty(JeyzerPublisherInit.EVENTS_RATE_BURST_PROPERTY, "0"));
+				}catch(NumberFormatException ex) {
+					// stay with default
+				}
+				Map<String, Long> codeRates = loadCodeProperties(JeyzerPublisherInit.EVENTS_RATE_LIMIT_PROPERTY_PREFIX, props);
+				if (defaultRate <= 0 && codeRates.isEmpty())
+					return; // no rate limit
 				
-				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(event.getCode().getLevel());
-				return eventGroup.terminateEvent(event);
-			}
-
-			public boolean cancelEvent(JzrEvent event) {
-				if (event == null || event.getId() == null || event.getId().isEmpty())
-					return false;
+				this.rateLimiter = new JzrEventRateLimiter(Math.max(defaultRate, 0), codeRates, Math.max(burst, 0));
+				criticalEventGroup.setRateLimiter(this.rateLimiter);
+				warnEventGroup.setRateLimiter(this.rateLimiter);
+				infoEventGroup.setRateLimiter(this.rateLimiter);
+			}
+
+			private void initStartedEventExpiry(Properties props) {
+				long criticalTimeToLive = loadTimeToLive(JeyzerPublisherInit.EVENTS_CRITICAL_STARTED_TTL_PROPERTY, props);
+				long warningTimeToLive = loadTimeToLive(JeyzerPublisherInit.EVENTS_WARNING_STARTED_TTL_PROPERTY, props);
+				long infoTimeToLive = loadTimeToLive(JeyzerPublisherInit.EVENTS_INFO_STARTED_TTL_PROPERTY, props);
+				Map<String, Long> codeTimesToLive = loadCodeProperties(JeyzerPublisherInit.EVENTS_STARTED_TTL_PROPERTY_PREFIX, props);
+				if (criticalTimeToLive == 0 && warningTimeToLive == 0 && infoTimeToLive == 0 && codeTimesToLive.isEmpty())
+					return; // started events live until terminated or cancelled
 				
-				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(event.getCode().getLevel());
-				return eventGroup.cancelEvent(event);
-			}
-
-			public boolean isWaitingForPublication(JzrEvent event) {
-				if (event == null || event.getId() == null || event.getId().isEmpty())
-					return false;
-
-				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(event.getCode().getLevel());
-				return eventGroup.isWaitingForPublication(event);
+				this.cancelExpiredStartedEvents = STARTED_EVENT_EXPIRY_ACTION_CANCEL.equalsIgnoreCase(
+						props.getProperty(JeyzerPublisherInit.EVENTS_STARTED_EXPIRY_ACTION_PROPERTY));
+				this.timingWheel = new JzrEventTimingWheel<>(TIMING_WHEEL_TICK);
+				criticalEventGroup.setTimeToLive(this.timingWheel, criticalTimeToLive, codeTimesToLive);
+				warnEventGroup.setTimeToLive(this.timingWheel, warningTimeToLive, codeTimesToLive);
+				infoEventGroup.setTimeToLive(this.timingWheel, infoTimeToLive, codeTimesToLive);
 			}
 			
-			public boolean isTerminated(JzrEvent event) {
-				if (event == null || event.getId() == null || event.getId().isEmpty())
-					return false;
-
-				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(event.getCode().getLevel());
-				return eventGroup.isTerminated(event);
-			}
-
-			private JzrEventInfoImplGroup getLevelBasedEventInfoImplGroup(JzrEventLevel level) {
-				switch(level) {
-				case CRITICAL :
-					return this.criticalEventGroup;
-				case WARNING : 
-					return this.warnEventGroup;
-				default :
-					return this.infoEventGroup;
+			private long loadTimeToLive(String property, Properties props) {
+				String value = props.getProperty(property);
+				if (value == null)
+					return 0; // no time to live
+				try {
+					return Math.max(Long.parseLong(value), 0);
+				}catch(NumberFormatException ex) {
+					return 0; // no time to live
 				}
 			}
 			
-			private JzrPublisherEventCode getSuspendedCodeAtRuntime(JzrEventLevel level) {
-				switch(level) {
-					case CRITICAL : return JzrPublisherEventCode.JZR_PUB_103;
-					case WARNING  : return JzrPublisherEventCode.JZR_PUB_203;
-					default       : return JzrPublisherEventCode.JZR_PUB_303;
-				}
+			private void initCardinalityGuards(Properties props) {
+				int sourceLimit = loadCardinalityLimit(JeyzerPublisherInit.EVENTS_SOURCE_CARDINALITY_LIMIT_PROPERTY, props);
+				if (sourceLimit > 0)
+					this.sourceGuard = new JzrEventCardinalityGuard(sourceLimit);
+				int serviceLimit = loadCardinalityLimit(JeyzerPublisherInit.EVENTS_SERVICE_CARDINALITY_LIMIT_PROPERTY, props);
+				if (serviceLimit > 0)
+					this.serviceGuard = new JzrEventCardinalityGuard(serviceLimit);
+				this.messageCardinalityLimit = loadCardinalityLimit(JeyzerPublisherInit.EVENTS_MESSAGE_CARDINALITY_LIMIT_PROPERTY, props);
 			}
 			
-			private JzrPublisherEventCode getResumedCodeAtRuntime(JzrEventLevel level) {
-				switch(level) {
-					case CRITICAL : return JzrPublisherEventCode.JZR_PUB_104;
-					case WARNING  : return JzrPublisherEventCode.JZR_PUB_204;
-					default       : return JzrPublisherEventCode.JZR_PUB_304;
+			private int loadCardinalityLimit(String property, Properties props) {
+				String value = props.getProperty(property);
+				if (value == null)
+					return 0; // no limit
+				try {
+					return Math.max(Integer.parseInt(value), 0);
+				}catch(NumberFormatException ex) {
+					return 0; // no limit
 				}
 			}
-			
-			private static final class JzrEventInfoImplGroup{
-				private JzrEventLevel level;
-				private ConcurrentLinkedQueue<JzrEventInfoImpl> events = new ConcurrentLinkedQueue<JzrEventInfoImpl>();
-				private JzrEventInfoImpl previousEvent;
 
-				private volatile int eventsLimit = DEFAULT_EVENTS_LIMIT_PER_LEVEL;
-				private volatile boolean limitReached;
-				private volatile boolean eventCollectionActive = true;
-
-				public JzrEventInfoImplGroup(JzrEventLevel level) {
-					this.level = level;
+			private Map<String, Long> loadCodeProperties(String prefix, Properties props) {
+				// per event code properties : <prefix><code abbreviation>
+				Map<String, Long> values = new HashMap<>();
+				for (String name : props.stringPropertyNames()) {
+					if (!name.startsWith(prefix))
+						continue;
+					String abbreviation = name.substring(prefix.length());
+					try {
+						long value = Long.parseLong(props.getProperty(name));
+						if (value >= 0 && !abbreviation.isEmpty())
+							values.put(abbreviation, value);
+					}catch(NumberFormatException ex) {
+						// ignore it
+					}
+				}
+				return Collections.unmodifiableMap(values);
+			}
+
+			private Map<String, Long> loadShareWeights(Properties props) {
+				// per source or service weights : <prefix><source or service name>
+				String prefix = JeyzerPublisherInit.EVENTS_FAIR_SHARE_WEIGHT_PROPERTY_PREFIX;
+				Map<String, Long> weights = new HashMap<>();
+				for (String name : props.stringPropertyNames()) {
+					if (!name.startsWith(prefix))
+						continue;
+					String key = name.substring(prefix.length());
+					try {
+						long weight = Long.parseLong(props.getProperty(name).trim());
+						if (weight > 0 && !key.isEmpty())
+							weights.put(key, weight);
+					}catch(NumberFormatException ex) {
+						// ignore it : default weight
+					}
 				}
+				return Collections.unmodifiableMap(weights);
+			}
 
-				public void resumeEventCollection() {
-					eventCollectionActive = true;
+			private void initEventMemoryLimit(JzrEventInfoImplGroup group, String maxBytesProperty, Properties props) {
+				String value = props.getProperty(maxBytesProperty);
+				if (value == null)
+					return; // stay with default : no memory limit
+				try {
+					long maxBytes = Long.parseLong(value);
+					if (maxBytes > 0)
+						group.setMaxBytes(maxBytes);
+				}catch(NumberFormatException ex) {
+					// stay with default
+				}
+			}
+
+			private void initEventLimit(JzrEventInfoImplGroup group, String eventsLimitProperty, Properties props) {
+				String value = props.getProperty(eventsLimitProperty);
+				if (value == null)
+					return; // stay with default
+				try {
+					int limit = Integer.parseInt(value);
+					group.setEventsLimit(limit);
+				}catch(NumberFormatException ex) {
+					// stay with default
+				}
+			}
+
+			/**
+			 * Count the event generation attempt, whatever its outcome
+			 */
+			public void track(JzrEventOrigin codeOrigin) {
+				originSketch.add(codeOrigin.getCode().getAbbreviation(), codeOrigin.getSource(), codeOrigin.getService(), codeOrigin.getFingerprint());
+			}
+			
+			/**
+			 * Cardinality guard of the monitor handler source
+			 * @return the source or the overflow value if too many distinct sources got already seen
+			 */
+			public String guardSource(String source) {
+				JzrEventCardinalityGuard guard = this.sourceGuard;
+				return guard != null ? guardValue(guard, source, "source") : source;
+			}
+			
+			/**
+			 * Cardinality guard of the monitor handler service
+			 * @return the service or the overflow value if too many distinct services got already seen
+			 */
+			public String guardService(String service) {
+				JzrEventCardinalityGuard guard = this.serviceGuard;
+				return guard != null ? guardValue(guard, service, "service") : service;
+			}
+			
+			/**
+			 * Cardinality guard of the event message, per event code
+			 * @return the event message or the overflow value if too many distinct messages got already seen for this event code
+			 */
+			public String guardMessage(JzrEvent event) {
+				int limit = this.messageCardinalityLimit;
+				if (limit == 0)
+					return event.getMessage();
+				
+				String abbreviation = event.getCode().getAbbreviation();
+				JzrEventCardinalityGuard guard = messageGuards.get(abbreviation);
+				if (guard == null) {
+					JzrEventCardinalityGuard created = new JzrEventCardinalityGuard(limit);
+					guard = messageGuards.putIfAbsent(abbreviation, created);
+					if (guard == null)
+						guard = created;
+				}
+				return guardValue(guard, event.getMessage(), abbreviation + " message");
+			}
+			
+			private String guardValue(JzrEventCardinalityGuard guard, String value, String attribute) {
+				String guarded = guard.guard(value);
+				if (guarded != value && guard.reportOverflow()) {
+					JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(
+							JzrPublisherEventCode.JZR_PUB_007,
+							JzrPublisherEventCode.JZR_PUB_007.getDescription(attribute)
+							);
+					addPublisherEvent(publisherEvent);
+				}
+				return guarded;
+			}
+			
+			/**
+			 * Adaptive sampling of the fired events, decided before any event allocation
+			 * @return the acceptance ratio if the fired event must be kept, 0 otherwise
+			 */
+			public float sample(JzrEventLevel level) {
+				JzrEventSampler sampler;
+				switch(level) {
+					case INFO    : sampler = this.infoEventSampler; break;
+					case WARNING : sampler = this.warnEventSampler; break;
+					default      : return 1f;  // critical events are never sampled
+				}
+				return sampler != null ? sampler.sample() : 1f;
+			}
+			
+			/**
+			 * Roll up of the fired event in the summary event of its origin, decided before any event allocation
+			 * @return ROLLED_UP if the fired event got folded in the current summary event, SUSPENDED if the event collection is suspended, null otherwise
+			 */
+			public JzrFireStatus rollUp(JzrEventOrigin codeOrigin, int codeOrdinal, String message, JzrEventScope scope) {
+				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(codeOrigin.getCode().getLevel());
+				return eventGroup.rollUp(codeOrigin, codeOrdinal, message, scope);
+			}
+			
+			/**
+			 * Get the event info of the fired or started event, pooled in slab mode
+			 */
+			public JzrEventInfoImpl createEventInfo(JzrEventOrigin codeOrigin, JzrEvent event, int codeOrdinal, String message, JzrEventScope scope, boolean oneshot, long threadId) {
+				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(event.getCode().getLevel());
+				// code origin fingerprint is cached : only the message gets hashed
+				long originFingerprint = JzrEventFingerprint.of(codeOrigin.getFingerprint(), message);
+				JzrEventInfoImpl evtInfo = eventGroup.claimEventInfo(codeOrigin.getSource(), codeOrigin.getService(), event, message, originFingerprint, scope, oneshot, threadId);
+				evtInfo.setCodeOrdinal(codeOrdinal);
+				return evtInfo;
+			}
+			
+			/**
+			 * Get the event code ordinal, to get once per fired or started event
+			 * @return the code ordinal, or UNREGISTERED if the code enum is not registered
+			 */
+			public int getCodeOrdinal(JzrEventCode code) {
+				return codeRegistry.ordinal(code);
+			}
+			
+			public void registerCodes(Class<? extends Enum<? extends JzrEventCode>> codeClass) {
+				if (codeRegistry.register(codeClass))
+					resolveCodes();
+			}
+			
+			private synchronized void resolveCodes() {
+				// per code settings get copied in flat tables, indexed by code ordinal
+				for (JzrEventInfoImplGroup eventGroup : this.eventGroups)
+					eventGroup.resolveCodes(codeRegistry);
+				JzrEventRateLimiter limiter = this.rateLimiter;
+				if (limiter != null)
+					limiter.resolveCodes(codeRegistry);
+			}
+			
+			public JzrFireStatus add(JzrEventInfoImpl evtInfo) {
+				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(evtInfo.getCode().getLevel());
+				JzrFireStatus status = eventGroup.addEvent(evtInfo, publisherEvents);
+				if (status.isAccepted()) {
+					if (JzrEventLevel.CRITICAL.equals(evtInfo.getCode().getLevel()))
+						updateMax(lastCriticalSequence, evtInfo.getSequence());
+					if (waitingConsumers > 0)
+						signalAvailability();
+				}
+				return status;
+			}
+			
+			public void addPublisherEvent(JzrPublisherEvent publisherEvent) {
+				this.publisherEvents.add(publisherEvent);
+				if (waitingConsumers > 0)
+					signalAvailability();
+			}
+			
+			private void signalAvailability() {
+				synchronized(availabilityLock) {
+					availabilityLock.notifyAll();
+				}
+			}
+			
+			private static void updateMax(AtomicLong value, long candidate) {
+				for (;;) {
+					long current = value.get();
+					if (candidate <= current || value.compareAndSet(current, candidate))
+						return;
+				}
+			}
+			
+			/**
+			 * Record a fetch of the events
+			 * @return the cursor of the fetch : changes occurring from now on are pending
+			 */
+			public long markFetched() {
+				long cursor = this.sequence.get();
+				this.lastFetchedSequence = cursor;
+				return cursor;
+			}
+			
+			public void awaitEvents(long timeout, int batchSize) {
+				long deadline = System.currentTimeMillis() + Math.min(timeout, MAX_AWAIT_TIMEOUT);
+				synchronized(availabilityLock) {
+					waitingConsumers++;
+					try {
+						// pending changes only : starts, terminations and cancellations not fetched yet, critical events included
+						while (this.sequence.get() - this.lastFetchedSequence < batchSize 
+								&& this.lastCriticalSequence.get() <= this.lastFetchedSequence) {
+							long remaining = deadline - System.currentTimeMillis();
+							if (remaining <= 0)
+								break;
+							availabilityLock.wait(remaining);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						waitingConsumers--;
+					}
+				}
+			}
+			
+			public void awaitPublisherEvents(long timeout) {
+				long deadline = System.currentTimeMillis() + Math.min(timeout, MAX_AWAIT_TIMEOUT);
+				synchronized(availabilityLock) {
+					waitingConsumers++;
+					try {
+						while (this.publisherEvents.isEmpty()) {
+							long remaining = deadline - System.currentTimeMillis();
+							if (remaining <= 0)
+								break;
+							availabilityLock.wait(remaining);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						waitingConsumers--;
+					}
+				}
+			}
+			
+			public List<JzrEventInfo> fetchEventsToPublish() {
+				List<JzrEventInfo> eventToPublish = new ArrayList<>();
+				markFetched();
+
+				this.criticalEventGroup.fetchEventsToPublish(eventToPublish, null, -1L, publisherEvents);
+				this.warnEventGroup.fetchEventsToPublish(eventToPublish, null, -1L, publisherEvents);
+				this.infoEventGroup.fetchEventsToPublish(eventToPublish, null, -1L, publisherEvents);
+				
+				return eventToPublish;
+			}
+			
+			public JzrEventBatch fetchEventsToPublish(long since) {
+				List<JzrEventInfo> eventToPublish = new ArrayList<>();
+				List<String> cancelledEventIds = new ArrayList<>();
+				
+				// changes occurring from now on will be part of the next batch
+				long cursor = markFetched();
+				
+				this.criticalEventGroup.fetchEventsToPublish(eventToPublish, cancelledEventIds, since, publisherEvents);
+				this.warnEventGroup.fetchEventsToPublish(eventToPublish, cancelledEventIds, since, publisherEvents);
+				this.infoEventGroup.fetchEventsToPublish(eventToPublish, cancelledEventIds, since, publisherEvents);
+				
+				return new JzrEventBatchImpl(0, cursor, eventToPublish, cancelledEventIds);
+			}
+			
+			public JzrEventBatch fetchAcknowledgeableEvents(long since) {
+				JzrEventBatch changes = fetchEventsToPublish(since);
+				
+				synchronized(pendingBatchesLock) {
+					JzrEventBatchImpl batch = new JzrEventBatchImpl(
+							++lastBatchId, 
+							changes.getCursor(), 
+							changes.getEvents(), 
+							changes.getCancelledEventIds());
+					
+					// bound the retention before adding the new batch : the new batch is always retained, even if larger than the limit
+					int batchEntryCount = getEntryCount(batch);
+					int droppedEventCount = 0;
+					while (pendingEntryCount + batchEntryCount > retentionLimit && !pendingBatches.isEmpty()) {
+						JzrEventBatchImpl droppedBatch = pendingBatches.removeFirst();
+						pendingEntryCount -= getEntryCount(droppedBatch);
+						droppedEventCount += getEntryCount(droppedBatch);
+					}
+					
+					// redeliver the unacknowledged batches first
+					List<JzrEventInfo> events = new ArrayList<>();
+					List<String> cancelledEventIds = new ArrayList<>();
+					for (JzrEventBatchImpl pendingBatch : pendingBatches) {
+						events.addAll(pendingBatch.getEvents());
+						cancelledEventIds.addAll(pendingBatch.getCancelledEventIds());
+					}
+					events.addAll(batch.getEvents());
+					cancelledEventIds.addAll(batch.getCancelledEventIds());
+					
+					pendingBatches.add(batch);
+					pendingEntryCount += batchEntryCount;
+					
+					if (droppedEventCount > 0) {
+						JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(
+								JzrPublisherEventCode.JZR_PUB_004,
+								JzrPublisherEventCode.JZR_PUB_004.getDescription(Integer.toString(droppedEventCount))
+								);
+						addPublisherEvent(publisherEvent);
+					}
+					
+					return new JzrEventBatchImpl(batch.getBatchId(), batch.getCursor(), events, cancelledEventIds);
+				}
+			}
+			
+			public void acknowledgeEventBatch(long batchId) {
+				synchronized(pendingBatchesLock) {
+					while (!pendingBatches.isEmpty() && pendingBatches.getFirst().getBatchId() <= batchId) {
+						JzrEventBatchImpl acknowledgedBatch = pendingBatches.removeFirst();
+						pendingEntryCount -= getEntryCount(acknowledgedBatch);
+					}
+				}
+			}
+			
+			private static int getEntryCount(JzrEventBatch batch) {
+				return batch.getEvents().size() + batch.getCancelledEventIds().size();
+			}
+			
+			public long getSequence() {
+				return this.sequence.get();
+			}
+			
+			public List<JzrEventInfo> getEvents() {
+				List<JzrEventInfo> events = new ArrayList<>();
+
+				events.addAll(this.criticalEventGroup.getEvents());
+				events.addAll(this.warnEventGroup.getEvents());
+				events.addAll(this.infoEventGroup.getEvents());
+				
+				return events;
+			}
+
+			public List<JzrPublisherEvent> fetchPublisherEvents() {
+				List<JzrPublisherEvent> eventsToPublish = new ArrayList<>();
+				
+				reportRateLimitedEvents();
+				
+				eventsToPublish.addAll(this.publisherEvents);
+				this.publisherEvents.removeAll(eventsToPublish); // remove only those ones in case new just got inserted
+				
+				return eventsToPublish;
+			}
+			
+			private void reportRateLimitedEvents() {
+				JzrEventRateLimiter limiter = this.rateLimiter;
+				if (limiter == null)
+					return;
+				
+				Map<String, Long> droppedEvents = new HashMap<>();
+				long total = limiter.collectDroppedEvents(droppedEvents);
+				if (total == 0)
+					return;
+				
+				// single publisher event per collection
+				StringBuilder details = new StringBuilder();
+				details.append(total).append(" events (");
+				int count = 0;
+				for (Map.Entry<String, Long> entry : droppedEvents.entrySet()) {
+					if (count > 0)
+						details.append(", ");
+					if (count++ == MAX_RATE_LIMIT_DETAILS) {
+						details.append("...");
+						break;
+					}
+					details.append(entry.getKey()).append(" : ").append(entry.getValue());
+				}
+				details.append(")");
+				
+				JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(
+						JzrPublisherEventCode.JZR_PUB_006,
+						JzrPublisherEventCode.JZR_PUB_006.getDescription(details.toString())
+						);
+				this.publisherEvents.add(publisherEvent);
+			}
+			
+			public List<JzrPublisherEvent> getPublisherEvents() {
+				List<JzrPublisherEvent> events = new ArrayList<>();
+				
+				events.addAll(this.publisherEvents);
+				
+				return events;
+			}
+
+			public boolean isEmpty() {
+				// expiry and cancellations reported on fetch must not wait for the next stored event
+				return this.criticalEventGroup.isEmpty() && !this.criticalEventGroup.hasPendingReports()
+						&& this.warnEventGroup.isEmpty() && !this.warnEventGroup.hasPendingReports()
+						&& this.infoEventGroup.isEmpty() && !this.infoEventGroup.hasPendingReports();
+			}
+
+			public void terminateLocalOrphanEvents() {
+				if (!this.criticalEventGroup.hasOpenActionEvents()
+						&& !this.warnEventGroup.hasOpenActionEvents()
+						&& !this.infoEventGroup.hasOpenActionEvents())
+					return; // no need to get the threads
+				
+				// get current live thread ids
+				ThreadMXBean tmbean = ManagementFactory.getThreadMXBean();
+				final JzrThreadIdSet liveThreadIds = new JzrThreadIdSet(tmbean.getAllThreadIds());
+				
+				this.criticalEventGroup.terminateLocalOrphanEvents(liveThreadIds);
+				this.warnEventGroup.terminateLocalOrphanEvents(liveThreadIds);
+				this.infoEventGroup.terminateLocalOrphanEvents(liveThreadIds);
+			}
+
+			public boolean isStartedEventExpiryEnabled() {
+				return this.timingWheel != null;
+			}
+			
+			public boolean isEventExpiryEnabled() {
+				return this.infoEventGroup.isExpiryEnabled();  // same expiry age for all levels
+			}
+			
+			/**
+			 * Drop the events older than the expiry age. Called by the reaper and on consumption : never on the fire path
+			 */
+			public void expireEvents() {
+				long now = System.currentTimeMillis();
+				for (JzrEventInfoImplGroup eventGroup : this.eventGroups)
+					eventGroup.expireEvents(now);
+			}
+			
+			public void expireStartedEvents() {
+				JzrEventTimingWheel<JzrEventInfoImpl> wheel = this.timingWheel;
+				if (wheel == null)
+					return;
+				
+				List<JzrEventTimingWheel.Timeout<JzrEventInfoImpl>> expiredTimeouts = new ArrayList<>();
+				wheel.advance(System.currentTimeMillis(), expiredTimeouts);
+				for (JzrEventTimingWheel.Timeout<JzrEventInfoImpl> expiredTimeout : expiredTimeouts) {
+					JzrEventInfoImpl expiredEvent = expiredTimeout.getElement();
+					int stamp = expiredEvent.pin();
+					try {
+						if (JzrEventInfoImpl.isRecycled(stamp) || expiredEvent.getExpiryTimeout() != expiredTimeout)
+							continue; // pooled record reused meanwhile
+						JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(expiredEvent.getCode().getLevel());
+						eventGroup.expireStartedEvent(expiredEvent, stamp, cancelExpiredStartedEvents);
+					} finally {
+						expiredEvent.unpin();
+					}
+				}
+			}
+
+			public boolean terminateEvent(JzrEvent event) {
+				if (event == null || !JzrEventInfoImpl.hasId(event))
+					return false;
+				
+				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(event.getCode().getLevel());
+				boolean terminated = eventGroup.terminateEvent(event);
+				if (terminated && waitingConsumers > 0)
+					signalAvailability();
+				return terminated;
+			}
+
+			public boolean cancelEvent(JzrEvent event) {
+				if (event == null || !JzrEventInfoImpl.hasId(event))
+					return false;
+				
+				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(event.getCode().getLevel());
+				boolean cancelled = eventGroup.cancelEvent(event);
+				if (cancelled && waitingConsumers > 0)
+					signalAvailability();
+				return cancelled;
+			}
+
+			public boolean isWaitingForPublication(JzrEvent event) {
+				if (event == null || !JzrEventInfoImpl.hasId(event))
+					return false;
+
+				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(event.getCode().getLevel());
+				return eventGroup.isWaitingForPublication(event);
+			}
+			
+			public boolean isTerminated(JzrEvent event) {
+				if (event == null || !JzrEventInfoImpl.hasId(event))
+					return false;
+
+				JzrEventInfoImplGroup eventGroup = getLevelBasedEventInfoImplGroup(event.getCode().getLevel());
+				return eventGroup.isTerminated(event);
+			}
+
+			private JzrEventInfoImplGroup getLevelBasedEventInfoImplGroup(JzrEventLevel level) {
+				return this.eventGroups[level.ordinal()];
+			}
+			
+			private JzrPublisherEventCode getSuspendedCodeAtRuntime(JzrEventLevel level) {
+				switch(level) {
+					case CRITICAL : return JzrPublisherEventCode.JZR_PUB_103;
+					case WARNING  : return JzrPublisherEventCode.JZR_PUB_203;
+					default       : return JzrPublisherEventCode.JZR_PUB_303;
+				}
+			}
+			
+			private JzrPublisherEventCode getResumedCodeAtRuntime(JzrEventLevel level) {
+				switch(level) {
+					case CRITICAL : return JzrPublisherEventCode.JZR_PUB_104;
+					case WARNING  : return JzrPublisherEventCode.JZR_PUB_204;
+					default       : return JzrPublisherEventCode.JZR_PUB_304;
+				}
+			}
+			
+			private static final class JzrEventInfoImplGroup{
+				private JzrEventLevel level;
+				// Fixed capacity stores sharing the events limit. Single stripe unless striping is enabled
+				// A full stripe overflows in the other ones : events get evicted only once all the stripes are full
+				private volatile JzrEventStripe[] stripes = new JzrEventStripe[] {new JzrEventStripe(new JzrEventRingBuffer<JzrEventInfoImpl>(DEFAULT_EVENTS_LIMIT_PER_LEVEL))};
+				// Id based access to the queued events, kept in sync with the queue. Permits constant time life cycle calls
+				// Standard events are keyed by numeric id, the other ones by string id
+				private JzrEventIdIndex<JzrEventInfoImpl> numericEventIndex = new JzrEventIdIndex<JzrEventInfoImpl>();
+				private ConcurrentHashMap<String, JzrEventInfoImpl> eventIndex = new ConcurrentHashMap<String, JzrEventInfoImpl>();
+				// Origin based access to the latest queued events, kept in sync with the queue. Permits flood detection across interleaved origins
+				private ConcurrentHashMap<JzrEventOrigin, JzrEventInfoImpl> originIndex = new ConcurrentHashMap<JzrEventOrigin, JzrEventInfoImpl>();
+				// Thread id based access to the open action events. Entries are released once empty or once the thread is dead
+				private ConcurrentHashMap<Long, JzrActionEventSet> actionEventIndex = new ConcurrentHashMap<Long, JzrActionEventSet>();
+				// Origin (message excluded) based access to the current summary events of the rolled up event codes
+				private ConcurrentHashMap<JzrEventOrigin, JzrEventInfoImpl> rollUpIndex = new ConcurrentHashMap<JzrEventOrigin, JzrEventInfoImpl>();
+
+				// Ids of the published events cancelled since last fetch
+				private ConcurrentLinkedQueue<String> cancelledEventIds = new ConcurrentLinkedQueue<String>();
+				private AtomicLong sequence;
+				// Publisher events of the manager. Receives the limit notices of the events lost while resizing the stripes
+				private List<JzrPublisherEvent> publisherEvents;
+
+				private volatile int eventsLimit = DEFAULT_EVENTS_LIMIT_PER_LEVEL;
+				private int stripeCount = 1;
+				private volatile long maxBytes = 0;  // no memory limit by default
+				// Estimated memory retained by the stored events, all stripes included. Reserved before storing an event
+				private final AtomicLong usedBytes = new AtomicLong(0);
+				private boolean priorityEviction = false;
+				// Null unless the fair share eviction is set
+				private Map<String, Long> fairShareWeights;
+				private boolean fairSharePerService;
+				private long expiryAge = 0;  // no expiry by default
+				private volatile long nextExpiry = Long.MAX_VALUE;
+				// Uncancelled events expired since last fetch
+				private AtomicLong expiredEventCount = new AtomicLong(0);
+				private volatile long dedupWindow = DEFAULT_DEDUP_WINDOW;
+				private volatile Map<String, Long> codeDedupWindows = Collections.emptyMap();
+				private volatile Map<String, Long> codeRollUpWindows = Collections.emptyMap();
+				private volatile JzrEventRateLimiter rateLimiter;
+				// Null if no started event time to live is configured
+				private volatile JzrEventTimingWheel<JzrEventInfoImpl> timingWheel;
+				private volatile long timeToLive = 0;
+				private volatile Map<String, Long> codeTimesToLive = Collections.emptyMap();
+				// Per code settings of the registered event codes, indexed by code ordinal. -1 if not set for the code
+				private volatile long[] codeDedupWindowTable = new long[0];
+				private volatile long[] codeRollUpWindowTable = new long[0];
+				private volatile long[] codeTimeToLiveTable = new long[0];
+				private volatile boolean limitReached;
+				private volatile boolean eventCollectionActive = true;
+				// Null unless the slab mode is enabled
+				private volatile JzrEventSlab<JzrEventInfoImpl> slab;
+
+				public JzrEventInfoImplGroup(JzrEventLevel level, AtomicLong sequence, List<JzrPublisherEvent> publisherEvents) {
+					this.level = level;
+					this.sequence = sequence;
+					this.publisherEvents = publisherEvents;
+				}
+
+				public void resumeEventCollection() {
+					eventCollectionActive = true;
 				}
 
 				public void suspendEventCollection() {
@@ -879,48 +1748,381 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 					return eventCollectionActive;
 				}
 
-				public void fetchEventsToPublish(List<JzrEventInfo> eventToPublish) {
-					List<JzrEventInfoImpl> terminatedEvents = new ArrayList<>();
+				public void fetchEventsToPublish(List<JzrEventInfo> eventToPublish, List<String> cancelledIds, long since, List<JzrPublisherEvent> publisherEvents) {
+					String cancelledId;
+					while ((cancelledId = this.cancelledEventIds.poll()) != null)
+						if (cancelledIds != null)
+							cancelledIds.add(cancelledId);
+					
+					long expiredEvents = this.expiredEventCount.getAndSet(0);
+					if (expiredEvents > 0) {
+						JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(
+								JzrPublisherEventCode.JZR_PUB_005,
+								JzrPublisherEventCode.JZR_PUB_005.getDescription(Long.toString(expiredEvents))
+								);
+						publisherEvents.add(publisherEvent);
+					}
 					
-					Object[] candidates = this.events.toArray();
+					JzrEventStripe[] current = this.stripes;
+					List<JzrEventInfoImpl> candidates = new ArrayList<>();
+					List<JzrEventInfoImpl> pendingEvents = new ArrayList<>();
 					
-					for(Object obj : candidates) {
-						JzrEventInfoImpl candidate = (JzrEventInfoImpl) obj;
-						eventToPublish.add(candidate);
-						if (candidate.isOneshot() || candidate.isTerminated())
-							terminatedEvents.add(candidate);
+					for (JzrEventStripe stripe : current) {
+						pendingEvents.clear();
+						
+						// Single drain pass. Bounded by the current size : pending events re-queued below must not be read twice
+						int count = stripe.events.size();
+						for (int i=0; i<count; i++) {
+							JzrEventInfoImpl candidate = stripe.events.poll();
+							if (candidate == null)
+								break;
+							releaseMemory(candidate);
+							if (candidate.isOpen()) {
+								// changed since the cursor, or stored after the cursor got read by the previous fetch
+								long candidateSequence = candidate.getSequence();
+								if (candidateSequence > since || !candidate.isDelivered(candidateSequence)) {
+									candidate.deliver(candidateSequence);
+									// cancelled meanwhile : the cancelling thread may have missed the delivery
+									if (!candidate.isCancelled())
+										candidates.add(snapshot(candidate));
+								}
+								pendingEvents.add(candidate);
+							}
+							else if (candidate.publish()) {
+								// terminated or oneshot : shipped once, whatever its sequence
+								unindex(candidate);
+								candidates.add(snapshot(candidate));
+								retire(candidate);
+							}
+							else {
+								// cancelled : lazily removed
+								unindex(candidate);
+								retire(candidate);
+							}
+						}
+						
+						// lost if the producers refilled the stores meanwhile : reported as cancelled in the next batch
+						for (JzrEventInfoImpl pendingEvent : pendingEvents)
+							store(stripe, pendingEvent, publisherEvents);
 					}
 					
-					this.events.removeAll(terminatedEvents);
-					if (events.size() <= eventsLimit)
+					if (current.length > 1 || priorityEviction || fairShareWeights != null)
+						// merge the stripes, priority buckets and fair share queues
+						Collections.sort(candidates, START_TIME_COMPARATOR);
+					eventToPublish.addAll(candidates);
+					
+					if (size() < eventsLimit)
 						limitReached = false;
 				}
 				
 				public List<JzrEventInfo> getEvents() {
-					List<JzrEventInfo> returnedEvents = new ArrayList<>();
-					returnedEvents.addAll(Arrays.asList(this.events.toArray(new JzrEventInfoImpl[0])));
+					List<JzrEventInfoImpl> candidates = snapshot();
+					
+					List<JzrEventInfo> returnedEvents = new ArrayList<>(candidates.size());
+					for (JzrEventInfoImpl candidate : candidates) {
+						// pooled records may get recycled meanwhile : pinned while copied
+						int stamp = candidate.pin();
+						try {
+							if (!JzrEventInfoImpl.isRecycled(stamp) && (candidate.isOpen() || candidate.isTerminated()))
+								returnedEvents.add(snapshot(candidate));
+						} finally {
+							candidate.unpin();
+						}
+					}
 					return returnedEvents;
 				}
+				
+				private JzrEventInfoImpl snapshot(JzrEventInfoImpl evtInfo) {
+					// pooled records get reused once collected : consumers get a copy
+					return evtInfo.getSlab() != null ? new JzrEventInfoImpl(evtInfo) : evtInfo;
+				}
+				
+				private void retire(JzrEventInfoImpl evtInfo) {
+					JzrEventSlab<JzrEventInfoImpl> owner = evtInfo.getSlab();
+					if (owner != null) {
+						evtInfo.recycle();  // calls pinned from the indexes fail from now on
+						owner.retire(evtInfo);
+					}
+				}
+				
+				/**
+				 * Get the event info of the fired or started event : a pooled record if the slab mode is enabled and a record is free, a new one otherwise
+				 */
+				public JzrEventInfoImpl claimEventInfo(String source, String service, JzrEvent event, String message, long originFingerprint, JzrEventScope scope, boolean oneshot, long threadId) {
+					JzrEventSlab<JzrEventInfoImpl> currentSlab = this.slab;
+					JzrEventInfoImpl evtInfo = currentSlab != null ? currentSlab.claim() : null;
+					if (evtInfo == null)
+						// slab mode disabled or slab exhausted
+						return new JzrEventInfoImpl(source, service, event, message, originFingerprint, scope, oneshot, threadId);
+					evtInfo.fill(source, service, event, message, originFingerprint, scope, oneshot, threadId);
+					return evtInfo;
+				}
 
+				public boolean hasPendingReports() {
+					return expiredEventCount.get() != 0 || !cancelledEventIds.isEmpty();
+				}
+				
 				public boolean isEmpty() {
-					return this.events.isEmpty();
+					for (JzrEventStripe stripe : this.stripes)
+						if (stripe.events.size() != 0)
+							return false;
+					return true;
+				}
+				
+				public int size() {
+					int size = 0;
+					for (JzrEventStripe stripe : this.stripes)
+						size += stripe.events.size();
+					return size;
+				}
+				
+				public long getMemoryUsage() {
+					long usage = usedBytes.get();
+					return usage > 0 ? usage : 0;
+				}
+				
+				private List<JzrEventInfoImpl> snapshot() {
+					List<JzrEventInfoImpl> candidates = new ArrayList<>();
+					for (JzrEventStripe stripe : this.stripes)
+						stripe.events.snapshot(candidates);
+					return candidates;
 				}
 
-				public boolean addEvent(JzrEventInfoImpl evtInfo, List<JzrPublisherEvent> publisherEvents) {
-					if (!eventCollectionActive)
-						return false;
+				public JzrFireStatus addEvent(JzrEventInfoImpl evtInfo, List<JzrPublisherEvent> publisherEvents) {
+					if (!eventCollectionActive) {
+						retire(evtInfo);
+						return JzrFireStatus.SUSPENDED;
+					}
+					
+					// similar event (with different id/thread id), no need to report. 
+					// Prevent event flooding, for example coming from loop or different threads.
+					if (isLoopedEvent(evtInfo)) {
+						retire(evtInfo);
+						return JzrFireStatus.DEDUPLICATED;
+					}
+					
+					JzrEventRateLimiter limiter = this.rateLimiter;
+					if (limiter != null && !limiter.tryAcquire(evtInfo, evtInfo.getCodeOrdinal())) {
+						unindex(evtInfo); // not stored, must not absorb the next similar events
+						retire(evtInfo);
+						return JzrFireStatus.RATE_LIMITED; // counted and reported on next publisher event collection
+					}
 					
-					if (isLoopedEvent(evtInfo))
-						return false; // similar event (with different id/thread id), no need to report. 
-					                  // Prevent event flooding, for example coming from loop or different threads.
+					if (evtInfo.isOneshot() && getRollUpWindow(evtInfo.getCode(), evtInfo.getCodeOrdinal()) > 0) {
+						// summary event of the roll up window starting now
+						// once per roll up window
+						evtInfo.startRollUp(new JzrEventOrigin(evtInfo.getSource(), evtInfo.getService(), evtInfo.getCode(), null));
+						rollUpIndex.put(evtInfo.getRollUpOrigin(), evtInfo);
+					}
+					
+					JzrEventStripe stripe = getStripe();
+					
+					if (!evtInfo.isOneshot()) {
+						scheduleExpiry(evtInfo);
+						if (JzrEventScope.ACTION.equals(evtInfo.getScope()))
+							indexActionEvent(evtInfo);
+					}
 					
 					// add it on the queue
-					events.offer(evtInfo);
+					evtInfo.setSequence(sequence.incrementAndGet());
+					if (evtInfo.getNumericId() != 0)
+						numericEventIndex.put(evtInfo.getNumericId(), evtInfo);
+					else
+						eventIndex.put(evtInfo.getIndexId(), evtInfo);
+					JzrFireStatus status = store(stripe, evtInfo, publisherEvents);
+					
+					return status;
+				}
+				
+				public JzrFireStatus rollUp(JzrEventOrigin codeOrigin, int codeOrdinal, String message, JzrEventScope scope) {
+					if (!eventCollectionActive)
+						return JzrFireStatus.SUSPENDED;
+					long window = getRollUpWindow(codeOrigin.getCode(), codeOrdinal);
+					if (window == 0)
+						return null; // not rolled up
+					
+					JzrEventInfoImpl summary = rollUpIndex.get(codeOrigin);
+					if (summary == null)
+						return null;
+					int stamp = summary.pin();
+					try {
+						if (JzrEventInfoImpl.isRecycled(stamp) || summary.getScope() != scope || !codeOrigin.equals(summary.getRollUpOrigin()))
+							return null; // pooled record reused meanwhile, or other scope
+						return summary.rollUp(stamp, System.currentTimeMillis(), message, window) ? JzrFireStatus.ROLLED_UP : null;
+					} finally {
+						summary.unpin();
+					}
+				}
+				
+				private void scheduleExpiry(JzrEventInfoImpl evtInfo) {
+					JzrEventTimingWheel<JzrEventInfoImpl> wheel = this.timingWheel;
+					if (wheel == null)
+						return;
+					long ttl = this.timeToLive;
+					long codeTtl = getCodeValue(this.codeTimeToLiveTable, this.codeTimesToLive, evtInfo.getCode(), evtInfo.getCodeOrdinal());
+					if (codeTtl >= 0)
+						ttl = codeTtl;
+					if (ttl > 0) {
+						JzrEventTimingWheel.Timeout<JzrEventInfoImpl> timeout = wheel.newTimeout(evtInfo, evtInfo.getStartTime() + ttl);
+						evtInfo.setExpiryTimeout(timeout);  // before scheduling : checked on expiry
+						wheel.schedule(timeout);
+					}
+				}
+				
+				private void indexActionEvent(JzrEventInfoImpl evtInfo) {
+					Long threadId = evtInfo.getThreadId();
+					for (;;) {
+						JzrActionEventSet threadEvents = getActionEventSet(threadId);
+						threadEvents.events.add(evtInfo);
+						// released meanwhile : take the event back unless already moved by the releasing thread
+						if (!threadEvents.released || !threadEvents.events.remove(evtInfo))
+							return;
+					}
+				}
+				
+				private JzrActionEventSet getActionEventSet(Long threadId) {
+					JzrActionEventSet threadEvents = actionEventIndex.get(threadId);
+					if (threadEvents != null && !threadEvents.released)
+						return threadEvents;
+					JzrActionEventSet created = new JzrActionEventSet();
+					for (;;) {
+						threadEvents = actionEventIndex.putIfAbsent(threadId, created);
+						if (threadEvents == null)
+							return created;
+						if (!threadEvents.released)
+							return threadEvents;
+						actionEventIndex.remove(threadId, threadEvents); // being released
+					}
+				}
+				
+				private void unindexActionEvent(JzrEventInfoImpl evtInfo) {
+					JzrActionEventSet threadEvents = actionEventIndex.get(evtInfo.getThreadId());
+					if (threadEvents == null || !threadEvents.events.remove(evtInfo))
+						return;
+					// any thread releases the empty entry : open action events must not keep the orphan detection running
+					if (threadEvents.events.isEmpty())
+						releaseActionEventSet(evtInfo.getThreadId(), threadEvents);
+				}
+				
+				private void releaseActionEventSet(Long threadId, JzrActionEventSet threadEvents) {
+					// flag first : the event thread checks it after its add. One way, as a fresh entry gets created instead
+					threadEvents.released = true;
+					actionEventIndex.remove(threadId, threadEvents);
+					// move back any event added before the flag got visible
+					for (JzrEventInfoImpl evtInfo : threadEvents.events) {
+						if (!threadEvents.events.remove(evtInfo))
+							continue; // taken back by the event thread
+						indexActionEvent(evtInfo);
+						if (!evtInfo.isOpen())
+							unindexActionEvent(evtInfo); // closed while moved
+					}
+				}
+				
+				public boolean hasOpenActionEvents() {
+					return !actionEventIndex.isEmpty();
+				}
+				
+				/**
+				 * @param stamp the stamp returned by the pin of the event
+				 */
+				public void expireStartedEvent(JzrEventInfoImpl evtInfo, int stamp, boolean cancel) {
+					if (!cancel) {
+						if (evtInfo.terminate(stamp, sequence)) {
+							// end time will be expiry one
+							unindexActionEvent(evtInfo);
+						}
+					}
+					else if (evtInfo.isOpen()) {
+						// terminated meanwhile : kept
+						cancel(evtInfo, stamp);
+					}
+				}
+				
+				private long getRollUpWindow(JzrEventCode code, int codeOrdinal) {
+					long window = getCodeValue(this.codeRollUpWindowTable, this.codeRollUpWindows, code, codeOrdinal);
+					return window > 0 ? window : 0;
+				}
+				
+				private static long getCodeValue(long[] table, Map<String, Long> values, JzrEventCode code, int codeOrdinal) {
+					if (codeOrdinal >= 0 && codeOrdinal < table.length)
+						return table[codeOrdinal];
+					// unregistered code, or registered meanwhile
+					if (values.isEmpty())
+						return -1;
+					Long value = values.get(code.getAbbreviation());
+					return value != null ? value : -1;
+				}
+				
+				public void resolveCodes(JzrEventCodeRegistry registry) {
+					this.codeDedupWindowTable = resolveCodeTable(registry, this.codeDedupWindows);
+					this.codeRollUpWindowTable = resolveCodeTable(registry, this.codeRollUpWindows);
+					this.codeTimeToLiveTable = resolveCodeTable(registry, this.codeTimesToLive);
+				}
+				
+				private static long[] resolveCodeTable(JzrEventCodeRegistry registry, Map<String, Long> values) {
+					long[] table = new long[registry.size()];
+					for (int ordinal=0; ordinal<table.length; ordinal++) {
+						Long value = values.get(registry.getCode(ordinal).getAbbreviation());
+						table[ordinal] = value != null ? value : -1;
+					}
+					return table;
+				}
+				
+				public boolean isExpiryEnabled() {
+					return expiryAge > 0;
+				}
+				
+				public void expireEvents(long now) {
+					if (now < nextExpiry)
+						return; // no time slice ended since the last expiry, or expiry disabled
+					nextExpiry = now + Math.min(EXPIRY_SLICE_DURATION, expiryAge);
 					
-					// process queue limit excess
-					if (events.size() > eventsLimit) {
-						JzrEventInfoImpl eventLost = events.poll(); // event is lost
-						if (!limitReached) {
+					// whole time slices get detached from the stores, only the expired events are visited
+					List<JzrEventInfoImpl> expiredEvents = new ArrayList<>();
+					for (JzrEventStripe stripe : this.stripes) {
+						expiredEvents.clear();
+						stripe.events.expire(now - expiryAge, expiredEvents);
+						for (JzrEventInfoImpl expiredEvent : expiredEvents) {
+							releaseMemory(expiredEvent);
+							unindex(expiredEvent);
+							if (!expiredEvent.isCancelled()) {
+								expiredEventCount.incrementAndGet();
+								if (expiredEvent.isDelivered())
+									cancelledEventIds.add(expiredEvent.getId()); // consumer must forget it
+							}
+							retire(expiredEvent);
+						}
+					}
+				}
+				
+				private JzrEventStripe getStripe() {
+					JzrEventStripe[] current = this.stripes;
+					if (current.length == 1)
+						return current[0];
+					// thread ids are sequential : spread evenly across the stripes
+					return current[(int) Thread.currentThread().getId() & (current.length - 1)];
+				}
+				
+				private JzrFireStatus store(JzrEventStripe stripe, JzrEventInfoImpl evtInfo, List<JzrPublisherEvent> publisherEvents) {
+					JzrFireStatus status = JzrFireStatus.ACCEPTED;
+					// process queue limit and memory budget excess
+					for (;;) {
+						JzrEventStripe target = offer(stripe, evtInfo) ? stripe : offerToOtherStripes(stripe, evtInfo);
+						if (target != null) {
+							if (target.retired)
+								migrate(target, publisherEvents); // stripes resized meanwhile : the resizing may have missed it
+							return status;
+						}
+						JzrEventInfoImpl eventLost = evict(stripe, evtInfo); // event is lost
+						if (eventLost == null) {
+							if (!isEmpty())
+								continue; // concurrent producer still writing a head slot
+							eventLost = evtInfo; // larger than the whole memory budget
+						}
+						if (eventLost != evtInfo)
+							releaseMemory(eventLost);
+						unindex(eventLost);
+						if (!limitReached && !eventLost.isCancelled()) {
 							limitReached = true;
 							SimpleDateFormat format = new SimpleDateFormat("yyyy MM dd HH mm ss SSS z");
 							JzrPublisherEvent publisherEvent = new JeyzerPublisherEventImpl(
@@ -929,93 +2131,366 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 									);
 							publisherEvents.add(publisherEvent);
 						}
+						if (eventLost.isDelivered())
+							forget(eventLost);
+						retire(eventLost);
+						if (eventLost == evtInfo)
+							return JzrFireStatus.DROPPED; // less important than all the stored events
+						status = JzrFireStatus.ACCEPTED_WITH_EVICTION;
 					}
-
-					return true;
+				}
+				
+				/**
+				 * Report the lost event as cancelled : the consumer got it while open and would otherwise wait for its termination
+				 */
+				private void forget(JzrEventInfoImpl eventLost) {
+					int stamp = eventLost.pin();
+					try {
+						// a concurrent cancel reports it once
+						if (eventLost.cancel(stamp, sequence.incrementAndGet()))
+							cancelledEventIds.add(eventLost.getId());
+					} finally {
+						eventLost.unpin();
+					}
+				}
+				
+				private boolean offer(JzrEventStripe stripe, JzrEventInfoImpl evtInfo) {
+					if (!reserveMemory(evtInfo))
+						return false;
+					if (stripe.events.offer(evtInfo))
+						return true;
+					releaseMemory(evtInfo);
+					return false;
+				}
+				
+				/**
+				 * @return the stripe storing the event, null if all full
+				 */
+				private JzrEventStripe offerToOtherStripes(JzrEventStripe home, JzrEventInfoImpl evtInfo) {
+					JzrEventStripe[] current = this.stripes;
+					for (JzrEventStripe stripe : current)
+						if (stripe != home && offer(stripe, evtInfo))
+							return stripe;
+					return null;
+				}
+				
+				/**
+				 * Move the events of the retired stripe in the current ones. 
+				 * Called by the resizing, and by any producer storing in the retired stripe : each event gets moved by its poller only
+				 */
+				private void migrate(JzrEventStripe retired, List<JzrPublisherEvent> publisherEvents) {
+					JzrEventInfoImpl evtInfo;
+					while ((evtInfo = retired.events.poll()) != null) {
+						releaseMemory(evtInfo);
+						JzrEventStripe[] current = this.stripes;
+						// lost if the new stores are full : evicted like any other event
+						store(current[(int) (evtInfo.getSequence() & (current.length - 1))], evtInfo, publisherEvents);
+					}
+				}
+				
+				private JzrEventInfoImpl evict(JzrEventStripe home, JzrEventInfoImpl evtInfo) {
+					JzrEventInfoImpl eventLost = home.events.evict(evtInfo);
+					if (eventLost != null && eventLost != evtInfo)
+						return eventLost;
+					// less important than the home stripe events, or memory budget used by the other stripes : ask them for a victim
+					boolean lessImportant = eventLost == evtInfo;
+					for (JzrEventStripe stripe : this.stripes) {
+						if (stripe == home)
+							continue;
+						eventLost = stripe.events.evict(evtInfo);
+						if (eventLost == evtInfo)
+							lessImportant = true;
+						else if (eventLost != null)
+							return eventLost;
+					}
+					// dropped only once less important than the events of every stripe
+					return lessImportant ? evtInfo : null;
+				}
+				
+				/**
+				 * Reserve the event retained size in the memory budget. Atomic : concurrent producers cannot exceed the budget together
+				 * @return false if the budget is exhausted
+				 */
+				private boolean reserveMemory(JzrEventInfoImpl evtInfo) {
+					long budget = this.maxBytes;
+					int size = evtInfo.getRetainedSize();
+					if (budget <= 0) {
+						usedBytes.addAndGet(size); // no budget : usage only
+						return true;
+					}
+					for (;;) {
+						long used = usedBytes.get();
+						if (used + size > budget)
+							return false;
+						if (usedBytes.compareAndSet(used, used + size))
+							return true;
+					}
+				}
+				
+				private void releaseMemory(JzrEventInfoImpl evtInfo) {
+					usedBytes.addAndGet(-evtInfo.getRetainedSize());
 				}
 
 				public void setEventsLimit(int eventsLimit) {
-					if (eventsLimit > this.eventsLimit)
-						this.eventsLimit = eventsLimit;
+					if (eventsLimit <= this.eventsLimit)
+						return;
+					this.eventsLimit = eventsLimit;
+					resizeStripes();
+				}
+				
+				public void setPriorityEviction(boolean priorityEviction) {
+					if (priorityEviction == this.priorityEviction)
+						return;
+					this.priorityEviction = priorityEviction;
+					resizeStripes();
+				}
+				
+				public void setFairShareEviction(Map<String, Long> weights, boolean perService) {
+					this.fairShareWeights = weights;
+					this.fairSharePerService = perService;
+					resizeStripes();
 				}
 				
-				public void terminateLocalOrphanEvents(long[] threadIds) {
-					Iterator<JzrEventInfoImpl> iter = this.events.iterator();
+				public void setStripeCount(int stripeCount) {
+					if (stripeCount <= this.stripeCount)
+						return;
+					this.stripeCount = stripeCount;
+					resizeStripes();
+				}
+				
+				public void setExpiryAge(long expiryAge) {
+					this.expiryAge = expiryAge;
+					resizeStripes();
+					this.nextExpiry = System.currentTimeMillis() + Math.min(EXPIRY_SLICE_DURATION, expiryAge);
+				}
+				
+				public void enableSlab() {
+					// stored events, plus the ones claimed by the producers and not stored yet
+					int capacity = 2 * this.eventsLimit;
+					JzrEventSlab<JzrEventInfoImpl> created = new JzrEventSlab<>(capacity);
+					for (int i=0; i<capacity; i++)
+						created.add(new JzrEventInfoImpl(created));
+					this.slab = created;
+				}
+				
+				public void setMaxBytes(long maxBytes) {
+					this.maxBytes = maxBytes;
+				}
+				
+				private void resizeStripes() {
+					// stores are sized on the limits : move the already stored events in the new ones
+					int stripeCapacity = (this.eventsLimit + this.stripeCount - 1) / this.stripeCount;
+					JzrEventStripe[] previous = this.stripes;
+					JzrEventStripe[] resized = new JzrEventStripe[this.stripeCount];
+					for (int i=0; i<resized.length; i++)
+						resized[i] = new JzrEventStripe(createStore(stripeCapacity));
+					this.stripes = resized;
+					
+					// producers may still store in the previous stripes : flagged after the swap, checked by the producers after their offer
+					for (JzrEventStripe stripe : previous) {
+						stripe.retired = true;
+						migrate(stripe, this.publisherEvents);
+					}
+				}
+				
+				private JzrEventStore<JzrEventInfoImpl> createStore(int capacity) {
+					if (priorityEviction)
+						return new JzrPriorityEventStore<>(capacity);
+					else if (fairShareWeights != null)
+						return new JzrFairShareEventStore<>(capacity, fairShareWeights, fairSharePerService);
+					else if (expiryAge > 0)
+						return new JzrSegmentedEventStore<>(capacity, Math.min(EXPIRY_SLICE_DURATION, expiryAge));
+					else
+						return new JzrEventRingBuffer<>(capacity);
+				}
+				
+				public void terminateLocalOrphanEvents(JzrThreadIdSet liveThreadIds) {
+					Iterator<Map.Entry<Long, JzrActionEventSet>> iter = actionEventIndex.entrySet().iterator();
 					while (iter.hasNext()) {
-						JzrEventInfoImpl event = iter.next();
-						if (!JzrEventScope.ACTION.equals(event.getScope()))
-							continue;  // not thread event
-						if (event.getEndTime()!=-1)
-							continue;  // closed or one shot thread event
-						if (isDeadThread(threadIds, event.getThreadId()))
-							event.terminate(); // end time will be closure one
+						Map.Entry<Long, JzrActionEventSet> entry = iter.next();
+						if (liveThreadIds.contains(entry.getKey()))
+							continue;
+						// dead thread : no more action event can get started on it
+						entry.getValue().released = true;
+						iter.remove();
+						for (JzrEventInfoImpl event : entry.getValue().events) {
+							int stamp = event.pin();
+							try {
+								if (JzrEventInfoImpl.isRecycled(stamp) || event.getThreadId() != entry.getKey())
+									continue; // pooled record reused meanwhile
+								if (event.terminate(stamp, sequence)) {
+									// end time will be closure one
+									event.cancelExpiry();
+								}
+							} finally {
+								event.unpin();
+							}
+						}
 					}
 				}
 				
 				public boolean terminateEvent(JzrEvent event) {
-					Iterator<JzrEventInfoImpl> iter = events.iterator();
-					while (iter.hasNext()) {
-						JzrEventInfoImpl candidate = iter.next();
-						if (candidate.getId().equals(event.getId())) {
-							candidate.terminate();
+					JzrEventInfoImpl candidate = lookup(event);
+					if (candidate == null)
+						return false;
+					int stamp = candidate.pin();
+					try {
+						if (!isIndexed(candidate, stamp, event))
+							return false; // pooled record reused meanwhile
+						if (candidate.terminate(stamp, sequence)) {
+							candidate.cancelExpiry();
+							unindexActionEvent(candidate);
 							return true;
 						}
+						return !candidate.isCancelled(); // already terminated or oneshot
+					} finally {
+						candidate.unpin();
 					}
-					return false;
 				}
 				
 				public boolean cancelEvent(JzrEvent event) {
-					Iterator<JzrEventInfoImpl> iter = events.iterator();
-					while (iter.hasNext()) {
-						JzrEventInfoImpl candidate = iter.next();
-						if (candidate.getId().equals(event.getId())) {
-							events.remove(candidate);
-							return true;
-						}
+					JzrEventInfoImpl candidate = lookup(event);
+					if (candidate == null)
+						return false; // not found
+					int stamp = candidate.pin();
+					try {
+						if (!isIndexed(candidate, stamp, event))
+							return false; // pooled record reused meanwhile
+						return cancel(candidate, stamp);
+					} finally {
+						candidate.unpin();
 					}
-					return false;
+				}
+				
+				/**
+				 * @param stamp the stamp returned by the pin of the candidate
+				 */
+				private boolean cancel(JzrEventInfoImpl candidate, int stamp) {
+					if (!candidate.isWaitingForPublication() || !candidate.cancel(stamp, sequence.incrementAndGet()))
+						return false; // already cancelled, published or recycled
+					unindex(candidate); // removed from the store at next fetch or eviction
+					if (candidate.isDelivered())
+						cancelledEventIds.add(candidate.getId()); // consumer must forget it
+					return true;
 				}
 				
 				public boolean isWaitingForPublication(JzrEvent event) {
-					Iterator<JzrEventInfoImpl> iter = events.iterator();
-					while (iter.hasNext()) {
-						JzrEventInfoImpl candidate = iter.next();
-						if (candidate.getId().equals(event.getId()))
-							return true;
+					JzrEventInfoImpl candidate = lookup(event);
+					if (candidate == null)
+						return false;
+					int stamp = candidate.pin();
+					try {
+						return isIndexed(candidate, stamp, event) && candidate.isWaitingForPublication();
+					} finally {
+						candidate.unpin();
 					}
-					return false;
 				}
 				
 				public boolean isTerminated(JzrEvent event) {
-					Iterator<JzrEventInfoImpl> iter = events.iterator();
-					while (iter.hasNext()) {
-						JzrEventInfoImpl candidate = iter.next();
-						if (candidate.getId().equals(event.getId()))
-							return candidate.isTerminated();
+					JzrEventInfoImpl candidate = lookup(event);
+					if (candidate == null)
+						return false;  // not found or already published
+					int stamp = candidate.pin();
+					try {
+						return isIndexed(candidate, stamp, event) && candidate.isTerminated();
+					} finally {
+						candidate.unpin();
 					}
-					return false;  // not found or already published
 				}
 				
-				private boolean isDeadThread(final long[] threadIds, final long id) {
-					for (int i=0; i<threadIds.length; i++){
-						if (id == threadIds[i]){
-							return false;
-						}
-					}
-					return true;
+				private JzrEventInfoImpl lookup(JzrEvent event) {
+					long numericId = JzrEventInfoImpl.getNumericId(event);
+					if (numericId != 0)
+						return numericEventIndex.get(numericId);
+					return eventIndex.get(event.getId());
+				}
+				
+				/**
+				 * Pooled records get reused : check the pinned record still stands for the event
+				 * @param stamp the stamp returned by the pin of the candidate
+				 */
+				private boolean isIndexed(JzrEventInfoImpl candidate, int stamp, JzrEvent event) {
+					if (JzrEventInfoImpl.isRecycled(stamp))
+						return false;
+					long numericId = JzrEventInfoImpl.getNumericId(event);
+					if (numericId != 0)
+						return candidate.getNumericId() == numericId;
+					return event.getId().equals(candidate.getIndexId());
+				}
+				
+				private void unindex(JzrEventInfoImpl evtInfo) {
+					if (evtInfo == null)
+						return;
+					// remove only if not superseded by a more recent event with same id or origin
+					if (evtInfo.getNumericId() != 0)
+						numericEventIndex.remove(evtInfo.getNumericId(), evtInfo);
+					else
+						eventIndex.remove(evtInfo.getIndexId(), evtInfo);
+					originIndex.remove(evtInfo.getOrigin(), evtInfo);
+					if (evtInfo.getRollUpOrigin() != null)
+						rollUpIndex.remove(evtInfo.getRollUpOrigin(), evtInfo);
+					evtInfo.cancelExpiry();
+					if (!evtInfo.isOneshot() && evtInfo.getThreadId() != -1)
+						unindexActionEvent(evtInfo);
 				}
 				
 				private boolean isLoopedEvent(JzrEventInfoImpl evtInfo) {
-					if (this.previousEvent != null && this.previousEvent.equalsOrigin(evtInfo)
-							&& this.previousEvent.isTimeContemporary(evtInfo)) {
-						return true;  // todo : previous event should carry this discard info and a counter
+					long window = getDedupWindow(evtInfo);
+					if (window == 0)
+						return false; // deduplication disabled
+					
+					JzrEventOrigin origin = evtInfo.getOrigin();
+					for (;;) {
+						JzrEventInfoImpl previousEvent = originIndex.get(origin);
+						if (previousEvent != null && isSuppressed(previousEvent, evtInfo, window))
+							return true; // reported with the previous event
+						// latest event of this origin
+						if (previousEvent == null ? 
+								originIndex.putIfAbsent(origin, evtInfo) == null 
+								: originIndex.replace(origin, previousEvent, evtInfo))
+							return false;
 					}
-					else {
-						this.previousEvent = evtInfo;
-						return false;
+				}
+				
+				private boolean isSuppressed(JzrEventInfoImpl previousEvent, JzrEventInfoImpl evtInfo, long window) {
+					int stamp = previousEvent.pin();
+					try {
+						// pooled record may have been reused
+						if (JzrEventInfoImpl.isRecycled(stamp) || !previousEvent.hasOrigin(evtInfo))
+							return false;
+						return previousEvent.isTimeContemporary(evtInfo, window) && previousEvent.suppress(stamp, sequence);
+					} finally {
+						previousEvent.unpin();
 					}
 				}
 				
+				private long getDedupWindow(JzrEventInfoImpl evtInfo) {
+					long window = getCodeValue(this.codeDedupWindowTable, this.codeDedupWindows, evtInfo.getCode(), evtInfo.getCodeOrdinal());
+					return window >= 0 ? window : this.dedupWindow;
+				}
+				
+				public void setDedupWindow(long dedupWindow) {
+					this.dedupWindow = dedupWindow;
+				}
+				
+				public void setCodeDedupWindows(Map<String, Long> codeDedupWindows) {
+					this.codeDedupWindows = codeDedupWindows;
+				}
+				
+				public void setCodeRollUpWindows(Map<String, Long> codeRollUpWindows) {
+					this.codeRollUpWindows = codeRollUpWindows;
+				}
+				
+				public void setRateLimiter(JzrEventRateLimiter rateLimiter) {
+					this.rateLimiter = rateLimiter;
+				}
+				
+				public void setTimeToLive(JzrEventTimingWheel<JzrEventInfoImpl> timingWheel, long timeToLive, Map<String, Long> codeTimesToLive) {
+					this.timeToLive = timeToLive;
+					this.codeTimesToLive = codeTimesToLive;
+					this.timingWheel = timingWheel;
+				}
+				
 				private JzrPublisherEventCode getLimitCodeLevel() {
 					switch(this.level) {
 						case CRITICAL : return JzrPublisherEventCode.JZR_PUB_101;
@@ -1024,6 +2499,25 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 					}
 				}
 			}
+			
+			/*
+			 * Event store portion written by a subset of the application threads
+			 */
+			private static final class JzrActionEventSet{
+				private final Set<JzrEventInfoImpl> events = Collections.newSetFromMap(new ConcurrentHashMap<JzrEventInfoImpl, Boolean>());
+				// One way : a released set is never reused
+				private volatile boolean released = false;
+			}
+			
+			private static final class JzrEventStripe{
+				private final JzrEventStore<JzrEventInfoImpl> events;
+				// Replaced by a resizing. One way
+				private volatile boolean retired = false;
+				
+				public JzrEventStripe(JzrEventStore<JzrEventInfoImpl> events) {
+					this.events = events;
+				}
+			}
 		}
 		
 		private static final class JzrActionHandlerImpl implements JzrActionHandler{
@@ -1080,80 +2574,155 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 			}
 		}
 		
-		private static final class JzrMonitorHandlerImpl implements JzrMonitorHandler{
+		private static final class JzrMonitorHandlerImpl implements JzrStatusMonitorHandler{
 
 			private JzrEventManager eventMgr;
 			
 			private String source;
 			private String service;
 			
+			// Origins of the fired enum event codes, message excluded : created once per code
+			private ConcurrentHashMap<JzrEventCode, JzrEventOrigin> codeOrigins = new ConcurrentHashMap<>();
+			
 			public JzrMonitorHandlerImpl(String source, String service, JzrEventManager eventMgr, String defaultSource) {
-				this.source = source != null ? source : defaultSource != null ? defaultSource : "NA";
-				this.service = service; // can be null
+				this.source = eventMgr.guardSource(source != null ? source : defaultSource != null ? defaultSource : "NA");
+				this.service = eventMgr.guardService(service); // can be null
 				this.eventMgr = eventMgr;
 			}
 
 			@Override
 			public boolean fireSystemEvent(JzrEvent event) {
+				return fireSystemEventWithStatus(event).isAccepted();
+			}
+			
+			@Override
+			public JzrFireStatus fireSystemEventWithStatus(JzrEvent event) {
 				if (!isValidEvent(event))
-					return false;
-				JzrEventInfoImpl evtInfo = new JzrEventInfoImpl(
-						this.source,
-						this.service,
+					return JzrFireStatus.INVALID;
+				JzrEventOrigin codeOrigin = getCodeOrigin(event.getCode());
+				eventMgr.track(codeOrigin);
+				int codeOrdinal = eventMgr.getCodeOrdinal(event.getCode());
+				float samplingRatio = eventMgr.sample(event.getCode().getLevel());
+				if (samplingRatio == 0)
+					return JzrFireStatus.SAMPLED_OUT; // sampled out under high fire rate
+				String message = eventMgr.guardMessage(event);
+				JzrFireStatus rollUpStatus = eventMgr.rollUp(codeOrigin, codeOrdinal, message, JzrEventScope.SYSTEM);
+				if (rollUpStatus != null)
+					return rollUpStatus; // folded in the current summary event, or suspended
+				JzrEventInfoImpl evtInfo = eventMgr.createEventInfo(
+						codeOrigin,
 						event,
+						codeOrdinal,
+						message,
 						JzrEventScope.SYSTEM,
-						true);
+						true,
+						-1);
+				evtInfo.setSamplingRatio(samplingRatio);
 				return eventMgr.add(evtInfo);
 			}
 
 			@Override
 			public boolean fireGlobalEvent(JzrEvent event) {
+				return fireGlobalEventWithStatus(event).isAccepted();
+			}
+			
+			@Override
+			public JzrFireStatus fireGlobalEventWithStatus(JzrEvent event) {
 				if (!isValidEvent(event))
-					return false;
-				JzrEventInfoImpl evtInfo = new JzrEventInfoImpl(
-						this.source,
-						this.service,
+					return JzrFireStatus.INVALID;
+				JzrEventOrigin codeOrigin = getCodeOrigin(event.getCode());
+				eventMgr.track(codeOrigin);
+				int codeOrdinal = eventMgr.getCodeOrdinal(event.getCode());
+				float samplingRatio = eventMgr.sample(event.getCode().getLevel());
+				if (samplingRatio == 0)
+					return JzrFireStatus.SAMPLED_OUT; // sampled out under high fire rate
+				String message = eventMgr.guardMessage(event);
+				JzrFireStatus rollUpStatus = eventMgr.rollUp(codeOrigin, codeOrdinal, message, JzrEventScope.GLOBAL);
+				if (rollUpStatus != null)
+					return rollUpStatus; // folded in the current summary event, or suspended
+				JzrEventInfoImpl evtInfo = eventMgr.createEventInfo(
+						codeOrigin,
 						event,
+						codeOrdinal,
+						message,
 						JzrEventScope.GLOBAL,
-						true);
+						true,
+						-1);
+				evtInfo.setSamplingRatio(samplingRatio);
 				return eventMgr.add(evtInfo);
 			}
 
 			@Override
 			public boolean fireLocalThreadEvent(JzrEvent event) {
+				return fireLocalThreadEventWithStatus(event).isAccepted();
+			}
+			
+			@Override
+			public JzrFireStatus fireLocalThreadEventWithStatus(JzrEvent event) {
 				if (!isValidEvent(event))
-					return false;
-				JzrEventInfoImpl evtInfo = new JzrEventInfoImpl(
-						this.source,
-						this.service,
+					return JzrFireStatus.INVALID;
+				JzrEventOrigin codeOrigin = getCodeOrigin(event.getCode());
+				eventMgr.track(codeOrigin);
+				int codeOrdinal = eventMgr.getCodeOrdinal(event.getCode());
+				float samplingRatio = eventMgr.sample(event.getCode().getLevel());
+				if (samplingRatio == 0)
+					return JzrFireStatus.SAMPLED_OUT; // sampled out under high fire rate
+				String message = eventMgr.guardMessage(event);
+				JzrFireStatus rollUpStatus = eventMgr.rollUp(codeOrigin, codeOrdinal, message, JzrEventScope.ACTION);
+				if (rollUpStatus != null)
+					return rollUpStatus; // folded in the current summary event, or suspended
+				JzrEventInfoImpl evtInfo = eventMgr.createEventInfo(
+						codeOrigin,
 						event,
+						codeOrdinal,
+						message,
 						JzrEventScope.ACTION,
-						true, 
+						true,
 						Thread.currentThread().getId());
+				evtInfo.setSamplingRatio(samplingRatio);
 				return eventMgr.add(evtInfo);
 			}
 			
 			@Override
 			public boolean startGlobalEvent(JzrEvent event) {
+				return startGlobalEventWithStatus(event).isAccepted();
+			}
+			
+			@Override
+			public JzrFireStatus startGlobalEventWithStatus(JzrEvent event) {
 				if (!isValidEvent(event))
-					return false;
-				JzrEventInfoImpl evtInfo = new JzrEventInfoImpl(
-						this.source,
-						this.service,
+					return JzrFireStatus.INVALID;
+				JzrEventOrigin codeOrigin = getCodeOrigin(event.getCode());
+				eventMgr.track(codeOrigin);
+				int codeOrdinal = eventMgr.getCodeOrdinal(event.getCode());
+				JzrEventInfoImpl evtInfo = eventMgr.createEventInfo(
+						codeOrigin,
 						event,
+						codeOrdinal,
+						eventMgr.guardMessage(event),
 						JzrEventScope.GLOBAL,
-						false);
+						false,
+						-1);
 				return eventMgr.add(evtInfo);
 			}
 			
 			@Override
 			public boolean startLocalThreadEvent(JzrEvent event) {
+				return startLocalThreadEventWithStatus(event).isAccepted();
+			}
+			
+			@Override
+			public JzrFireStatus startLocalThreadEventWithStatus(JzrEvent event) {
 				if (!isValidEvent(event))
-					return false;
-				JzrEventInfoImpl evtInfo = new JzrEventInfoImpl(
-						this.source,
-						this.service,
+					return JzrFireStatus.INVALID;
+				JzrEventOrigin codeOrigin = getCodeOrigin(event.getCode());
+				eventMgr.track(codeOrigin);
+				int codeOrdinal = eventMgr.getCodeOrdinal(event.getCode());
+				JzrEventInfoImpl evtInfo = eventMgr.createEventInfo(
+						codeOrigin,
 						event,
+						codeOrdinal,
+						eventMgr.guardMessage(event),
 						JzrEventScope.ACTION,
 						false,
 						Thread.currentThread().getId());
@@ -1180,11 +2749,25 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 				return eventMgr.isTerminated(event);
 			}
 			
+			private JzrEventOrigin getCodeOrigin(JzrEventCode code) {
+				if (!(code instanceof Enum))
+					// code instances may not be bounded
+					return new JzrEventOrigin(this.source, this.service, code, null);
+				JzrEventOrigin origin = codeOrigins.get(code);
+				if (origin == null) {
+					JzrEventOrigin created = new JzrEventOrigin(this.source, this.service, code, null);
+					origin = codeOrigins.putIfAbsent(code, created);
+					if (origin == null)
+						origin = created;
+				}
+				return origin;
+			}
+			
 			private boolean isValidEvent(JzrEvent event) {
 				if (event == null)
 					return false;
-				if (event.getId() == null || event.getId().isEmpty())
-					return false;
+				if (!JzrEventInfoImpl.hasId(event))
+					return false; // no id
 				if (event.getCode() == null)
 					return false;
 				if (event.getCode().getLevel() == null || event.getCode().getSubLevel() == null)
@@ -1256,38 +2839,247 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 
 		}
 		
+		/**
+		 * Internal Jeyzer event origin key : source, service, code and message<br>
+		 * Compared on its 64 bits fingerprint first : the attributes get compared only on fingerprint match<br>
+		 */
+		private static final class JzrEventOrigin {
+			
+			private final String source;
+			private final String service;
+			private final JzrEventCode code;
+			private final String message;
+			private final long fingerprint;
+			
+			public JzrEventOrigin(String source, String service, JzrEventCode code, String message) {
+				this(source, service, code, message, JzrEventFingerprint.of(JzrEventFingerprint.of(code.getAbbreviation(), source, service), message));
+			}
+			
+			public JzrEventOrigin(String source, String service, JzrEventCode code, String message, long fingerprint) {
+				this.source = source;
+				this.service = service;
+				this.code = code;
+				this.message = message;
+				this.fingerprint = fingerprint;
+			}
+			
+			public String getSource() {
+				return source;
+			}
+			
+			public String getService() {
+				return service;
+			}
+			
+			public JzrEventCode getCode() {
+				return code;
+			}
+			
+			public long getFingerprint() {
+				return fingerprint;
+			}
+			
+			@Override
+			public int hashCode() {
+				return (int) (fingerprint ^ (fingerprint >>> 32));
+			}
+			
+			@Override
+			public boolean equals(Object obj) {
+				if (this == obj)
+					return true;
+				if (!(obj instanceof JzrEventOrigin))
+					return false;
+				JzrEventOrigin other = (JzrEventOrigin) obj;
+				return fingerprint == other.fingerprint
+						&& source.equals(other.source)  // mandatory field, never null
+						&& Objects.equals(service, other.service)
+						&& Objects.equals(code, other.code)
+						&& Objects.equals(message, other.message);
+			}
+		}
+		
 		/**
 		 * Internal Jeyzer event info bean<br>
 		 */
 		private static final class JzrEventInfoImpl implements JzrEventInfo {
 			
+			// Life cycle : OPEN -> TERMINATED -> PUBLISHED, OPEN or TERMINATED -> CANCELLED. Oneshot events start as TERMINATED
+			private static final int OPEN = 0;
+			private static final int CLOSING = 1;     // transient, while setting the end time
+			private static final int TERMINATED = 2;
+			private static final int CANCELLED = 3;
+			private static final int PUBLISHED = 4;   // consumed for the last time
+			private static final int RECYCLED = 5;    // pooled record returned to its slab
+			
+			// Stamp : record generation on the high bits, state on the low ones. Bumped on each pooled record retirement
+			private static final int STATE_BITS = 3;
+			private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+			
+			private static final int MAX_ROLLED_UP_MESSAGES = 10;
+			
+			private static final AtomicIntegerFieldUpdater<JzrEventInfoImpl> STAMP_UPDATER = 
+					AtomicIntegerFieldUpdater.newUpdater(JzrEventInfoImpl.class, "stamp");
+			private static final AtomicIntegerFieldUpdater<JzrEventInfoImpl> SUPPRESSED_COUNT_UPDATER = 
+					AtomicIntegerFieldUpdater.newUpdater(JzrEventInfoImpl.class, "suppressedCount");
+			private static final AtomicLongFieldUpdater<JzrEventInfoImpl> SEQUENCE_UPDATER = 
+					AtomicLongFieldUpdater.newUpdater(JzrEventInfoImpl.class, "sequence");
+			private static final AtomicLongFieldUpdater<JzrEventInfoImpl> END_TIME_UPDATER = 
+					AtomicLongFieldUpdater.newUpdater(JzrEventInfoImpl.class, "endTime");
+			private static final AtomicIntegerFieldUpdater<JzrEventInfoImpl> ROLLED_UP_COUNT_UPDATER = 
+					AtomicIntegerFieldUpdater.newUpdater(JzrEventInfoImpl.class, "rolledUpCount");
+			private static final AtomicIntegerFieldUpdater<JzrEventInfoImpl> ACTIVE_CALLS_UPDATER = 
+					AtomicIntegerFieldUpdater.newUpdater(JzrEventInfoImpl.class, "activeCalls");
+			
+			// Stands for a null message in the rolled up messages, where null means a free slot
+			private static final String NULL_MESSAGE = new String();
+			
+			// Retained size estimation : event info, cloned event, index entry and store slot, then strings on top
+			private static final int RETAINED_SIZE_OVERHEAD = 200;
+			private static final int STRING_SIZE_OVERHEAD = 40;
+			
 			private String source;
 			private String service;
 			
+			// Null if the standard event values got captured in the pooled record
 			private JzrEvent event;
+			private JzrEventCode code;  // read once from the event
+			private int codeOrdinal = JzrEventCodeRegistry.UNREGISTERED;
+			// Index key : numeric id of the standard events, string id of the other ones
+			private long numericId;
+			private String indexId;
+			// Captured standard event values
+			private String renderedId;
+			private short trustFactor;
+			private String message;  // event one, unless collapsed by the cardinality guard
 			
 			private long startTime;
-			private long endTime = -1;
+			private volatile long endTime = -1;
 			
 			private JzrEventScope scope;
 			private long threadId = -1;
 			
 			private boolean oneshot;
+			private volatile int stamp;  // generation and state
+			private volatile long sequence;
+			private volatile long deliveredSequence;  // 0 if never delivered
+			private int retainedSize;
+			private JzrEventOrigin origin;  // created on first use
+			private long originFingerprint;
+			private volatile int suppressedCount = 0;
+			private float samplingRatio = 1f;
+			// Set on summary events of rolled up event codes
+			private JzrEventOrigin rollUpOrigin;
+			// Own message first, then the distinct messages of the folded events. Slots claimed by CAS
+			private AtomicReferenceArray<String> rolledUpMessages;
+			private volatile int rolledUpCount = 0;
+			// Calls in progress on the record read from the indexes (pinned) : the publication and the retirement wait for them
+			private volatile int activeCalls = 0;
+			// Set on started events with a time to live
+			private volatile JzrEventTimingWheel.Timeout<JzrEventInfoImpl> expiryTimeout;
+			// Null unless pooled
+			private JzrEventSlab<JzrEventInfoImpl> slab;
+			
+			public JzrEventInfoImpl(String source, String service, JzrEvent evt, String message, long originFingerprint, JzrEventScope scope, boolean oneshot, long threadId) {
+				this.event = copy(evt);
+				long id = getNumericId(evt);
+				init(source, service, this.event.getCode(), id, id != 0 ? null : evt.getId(), message, originFingerprint, scope, oneshot, threadId);
+			}
+			
+			/**
+			 * Pooled record constructor. The record gets filled on each claim
+			 * @param slab the owning slab
+			 */
+			public JzrEventInfoImpl(JzrEventSlab<JzrEventInfoImpl> slab) {
+				this.slab = slab;
+			}
+			
+			/**
+			 * Snapshot constructor : pooled records must not be handed out to the consumers
+			 * @param record the pooled record to copy
+			 */
+			public JzrEventInfoImpl(JzrEventInfoImpl record) {
+				this.source = record.source;
+				this.service = record.service;
+				this.event = record.event;  // private copy or frozen event : never modified
+				this.code = record.code;
+				this.codeOrdinal = record.codeOrdinal;
+				this.numericId = record.numericId;
+				this.indexId = record.indexId;
+				this.renderedId = record.renderedId;
+				this.trustFactor = record.trustFactor;
+				this.message = record.message;
+				this.startTime = record.startTime;
+				this.endTime = record.endTime;
+				this.scope = record.scope;
+				this.threadId = record.threadId;
+				this.oneshot = record.oneshot;
+				this.sequence = record.sequence;
+				this.deliveredSequence = record.deliveredSequence;
+				this.retainedSize = record.retainedSize;
+				this.originFingerprint = record.originFingerprint;
+				this.suppressedCount = record.suppressedCount;
+				this.samplingRatio = record.samplingRatio;
+				if (record.rolledUpMessages != null)
+					this.rolledUpMessages = new AtomicReferenceArray<>(record.getRolledUpMessageSlots());
+				this.rolledUpCount = record.rolledUpCount;
+				this.stamp = record.stamp & STATE_MASK;
+			}
+			
+			/**
+			 * Fill the claimed pooled record. Standard event values are captured : the event does not get copied
+			 */
+			public void fill(String source, String service, JzrEvent evt, String message, long originFingerprint, JzrEventScope scope, boolean oneshot, long threadId) {
+				long id;
+				if (evt.getClass() == JzrStandardEvent.class && !((JzrStandardEvent) evt).isFrozen()) {
+					JzrStandardEvent standardEvent = (JzrStandardEvent) evt;
+					this.event = null;
+					id = standardEvent.getNumericId();
+					this.renderedId = id != 0 ? null : standardEvent.getId(); // explicit id
+					this.trustFactor = standardEvent.getTrustFactor();
+				}
+				else {
+					this.event = copy(evt);
+					this.renderedId = null;
+					id = getNumericId(evt);
+				}
+				// keyed on the caller event : the copy of a subclass may not keep its id
+				init(source, service, evt.getCode(), id, id != 0 ? null : evt.getId(), message, originFingerprint, scope, oneshot, threadId);
+			}
 			
-			public JzrEventInfoImpl(String source, String service, JzrEvent evt, JzrEventScope scope, boolean oneshot) {
+			private void init(String source, String service, JzrEventCode code, long numericId, String indexId, String message, long originFingerprint, JzrEventScope scope, boolean oneshot, long threadId) {
 				this.source = source;
 				this.service = service;
-				this.event = (JzrEvent)evt.clone();
+				this.code = code;
+				this.codeOrdinal = JzrEventCodeRegistry.UNREGISTERED;
+				this.numericId = numericId;
+				this.indexId = indexId;
+				this.message = message;
 				this.startTime = System.currentTimeMillis();
 				this.scope = scope;
+				this.threadId = threadId;
 				this.oneshot = oneshot;
-				if (oneshot)
+				this.sequence = 0;
+				this.deliveredSequence = 0;
+				this.origin = null;
+				this.originFingerprint = originFingerprint;
+				this.suppressedCount = 0;
+				this.samplingRatio = 1f;
+				this.rollUpOrigin = null;
+				this.rolledUpMessages = null;
+				this.rolledUpCount = 0;
+				this.expiryTimeout = null;
+				this.retainedSize = RETAINED_SIZE_OVERHEAD + estimateIdSize() + estimateSize(message);
+				// generation kept : bumped on retirement. Stamp written last : a pinning thread seeing it sees the new values
+				int generation = this.stamp & ~STATE_MASK;
+				if (oneshot) {
 					this.endTime = this.startTime;
-			}
-
-			public JzrEventInfoImpl(String source, String service, JzrEvent evt, JzrEventScope scope, boolean oneshot, long threadId) {
-				this(source, service, evt, scope, oneshot);
-				this.threadId = threadId;
+					this.stamp = generation | TERMINATED;
+				}
+				else {
+					this.endTime = -1;
+					this.stamp = generation | OPEN;
+				}
 			}
 
 			@Override
@@ -1302,12 +3094,27 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 
 			@Override
 			public JzrEventCode getCode() {
-				return event.getCode();
+				return code;
+			}
+			
+			public int getCodeOrdinal() {
+				return codeOrdinal;
+			}
+			
+			public void setCodeOrdinal(int codeOrdinal) {
+				this.codeOrdinal = codeOrdinal;
 			}
 
 			@Override
 			public String getId() {
-				return event.getId();
+				if (event != null)
+					return event.getId();
+				String rendered = renderedId;
+				if (rendered == null) {
+					rendered = code.getAbbreviation() + "-" + numericId;
+					renderedId = rendered;  // immutable : benign race
+				}
+				return rendered;
 			}
 
 			@Override
@@ -1317,12 +3124,12 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 			
 			@Override
 			public String getMessage() {
-				return event.getMessage();
+				return message;
 			}
 
 			@Override
 			public short getTrustFactor() {
-				return event.getTrustFactor();
+				return event != null ? event.getTrustFactor() : trustFactor;
 			}
 
 			@Override
@@ -1332,7 +3139,8 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 
 			@Override
 			public long getEndTime() {
-				return endTime;
+				// end time is written before the state : read the state first
+				return isTerminated() ? endTime : -1;
 			}
 
 			@Override
@@ -1345,46 +3153,361 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 				return oneshot;
 			}
 			
+			@Override
+			public int getSuppressedCount() {
+				return suppressedCount;
+			}
+			
+			/**
+			 * Count a similar event. A delivered open event gets a new sequence, once per delivery : the consumer must get the new count
+			 * @param pinnedStamp the stamp returned by the pin of this record
+			 * @param sequencer the sequence of the event changes
+			 * @return true if counted. False if the event is no longer waiting for publication
+			 */
+			public boolean suppress(int pinnedStamp, AtomicLong sequencer) {
+				int current = stamp;
+				if (!isSameGeneration(current, pinnedStamp) || !isWaitingForPublication(current))
+					return false;
+				SUPPRESSED_COUNT_UPDATER.incrementAndGet(this);
+				long currentSequence = sequence;
+				if (deliveredSequence == currentSequence && (stamp & STATE_MASK) == OPEN)
+					// lost against a concurrent change or suppression : the event has a new sequence anyway
+					SEQUENCE_UPDATER.compareAndSet(this, currentSequence, sequencer.incrementAndGet());
+				return true;
+			}
+			
+			@Override
+			public float getSamplingRatio() {
+				return samplingRatio;
+			}
+			
+			public void setSamplingRatio(float samplingRatio) {
+				this.samplingRatio = samplingRatio;
+			}
+			
+			@Override
+			public int getRolledUpCount() {
+				return rolledUpCount;
+			}
+			
+			@Override
+			public List<String> getRolledUpMessages() {
+				if (rolledUpMessages == null || rolledUpCount == 0)
+					return Collections.emptyList();
+				List<String> messages = new ArrayList<>(MAX_ROLLED_UP_MESSAGES);
+				for (String slot : getRolledUpMessageSlots()) {
+					if (slot == null)
+						break;
+					messages.add(slot != NULL_MESSAGE ? slot : null);
+				}
+				return Collections.unmodifiableList(messages);
+			}
+			
+			private String[] getRolledUpMessageSlots() {
+				String[] slots = new String[rolledUpMessages.length()];
+				for (int i=0; i<slots.length; i++)
+					slots[i] = rolledUpMessages.get(i);
+				return slots;
+			}
+			
+			public JzrEventOrigin getRollUpOrigin() {
+				return rollUpOrigin;
+			}
+			
+			/**
+			 * Make this oneshot event the summary event of its roll up window
+			 * @param rollUpOrigin the event origin, message excluded
+			 */
+			public void startRollUp(JzrEventOrigin rollUpOrigin) {
+				this.rollUpOrigin = rollUpOrigin;
+				this.rolledUpMessages = new AtomicReferenceArray<>(MAX_ROLLED_UP_MESSAGES);
+				this.rolledUpMessages.set(0, message != null ? message : NULL_MESSAGE);
+			}
+			
+			public JzrEventTimingWheel.Timeout<JzrEventInfoImpl> getExpiryTimeout() {
+				return expiryTimeout;
+			}
+			
+			public void setExpiryTimeout(JzrEventTimingWheel.Timeout<JzrEventInfoImpl> expiryTimeout) {
+				this.expiryTimeout = expiryTimeout;
+			}
+			
+			public void cancelExpiry() {
+				if (expiryTimeout != null)
+					expiryTimeout.cancel();
+			}
+			
+			public boolean isOpen() {
+				int current = stamp & STATE_MASK;
+				return current == OPEN || current == CLOSING;
+			}
+			
 			public boolean isTerminated() {
-				return endTime != -1;
+				int current = stamp & STATE_MASK;
+				return current == TERMINATED || current == PUBLISHED;
 			}
 			
-			public void terminate() {
-				if (!oneshot)
-					endTime = System.currentTimeMillis();
+			public boolean isCancelled() {
+				return (stamp & STATE_MASK) == CANCELLED;
 			}
 			
-			public boolean equalsOrigin(JzrEventInfoImpl other) {
-				if (other == null)
+			public boolean isWaitingForPublication() {
+				return isWaitingForPublication(stamp);
+			}
+			
+			private static boolean isWaitingForPublication(int stamp) {
+				int current = stamp & STATE_MASK;
+				return current == OPEN || current == CLOSING || current == TERMINATED;
+			}
+			
+			private static boolean isSameGeneration(int stamp, int otherStamp) {
+				return (stamp & ~STATE_MASK) == (otherStamp & ~STATE_MASK);
+			}
+			
+			/**
+			 * Pin the record read from an index : a pooled record does not get recycled until unpinned. 
+			 * The returned stamp must be passed to the life cycle calls : they fail if the record got recycled before the pin
+			 * @return the record stamp
+			 */
+			public int pin() {
+				ACTIVE_CALLS_UPDATER.incrementAndGet(this);
+				return stamp;
+			}
+			
+			public void unpin() {
+				ACTIVE_CALLS_UPDATER.decrementAndGet(this);
+			}
+			
+			/**
+			 * @param pinnedStamp the stamp returned by the pin of this record
+			 * @return true if the pooled record got recycled : it no longer stands for the event read from the index
+			 */
+			public static boolean isRecycled(int pinnedStamp) {
+				return (pinnedStamp & STATE_MASK) == RECYCLED;
+			}
+			
+			/**
+			 * The end time and the sequence are written before the terminated state : a fetch seeing the state sees the change
+			 * @param pinnedStamp the stamp returned by the pin of this record
+			 * @param sequencer the sequence of the event changes
+			 * @return true if the event transitioned from open to terminated
+			 */
+			public boolean terminate(int pinnedStamp, AtomicLong sequencer) {
+				int generation = pinnedStamp & ~STATE_MASK;
+				if (!STAMP_UPDATER.compareAndSet(this, generation | OPEN, generation | CLOSING))
 					return false;
-				if (service == null) {
-					if (other.getService() != null)
+				endTime = System.currentTimeMillis();
+				sequence = sequencer.incrementAndGet();
+				stamp = generation | TERMINATED;
+				return true;
+			}
+			
+			/**
+			 * The sequence is written before the cancelled state
+			 * @param pinnedStamp the stamp returned by the pin of this record
+			 * @param changeSequence the sequence of the cancellation
+			 * @return true if the event got cancelled. False if already cancelled, published or recycled
+			 */
+			public boolean cancel(int pinnedStamp, long changeSequence) {
+				int generation = pinnedStamp & ~STATE_MASK;
+				for (;;) {
+					int current = stamp;
+					if ((current & ~STATE_MASK) != generation)
+						return false; // recycled
+					int state = current & STATE_MASK;
+					if (state == CLOSING)
+						continue; // termination about to complete
+					if (state != OPEN && state != TERMINATED)
 						return false;
-				} else if (!service.equals(other.getService()))
-					return false;
-				if (!source.equals(other.getSource()))  // mandatory field, never null
-					return false;
-				if (event.getCode() == null) {
-					if (other.getCode() != null)
+					sequence = changeSequence;  // unused once published, if losing against the publication
+					if (STAMP_UPDATER.compareAndSet(this, current, generation | CANCELLED))
+						return true;
+				}
+			}
+			
+			/**
+			 * @return true if the terminated event got published for the last time. False if cancelled in the meantime
+			 */
+			public boolean publish() {
+				for (;;) {
+					int current = stamp;
+					if ((current & STATE_MASK) != TERMINATED)
 						return false;
-				} else if (!event.getCode().equals(other.getCode()))
+					if (STAMP_UPDATER.compareAndSet(this, current, (current & ~STATE_MASK) | PUBLISHED))
+						break;
+				}
+				// folds pinned before the publication must complete before the event gets shipped. Consumer side wait only
+				while (activeCalls != 0)
+					Thread.yield();
+				return true;
+			}
+			
+			/**
+			 * Retire the pooled record : a new generation starts, calls pinned on the previous one fail from now on. 
+			 * Waits for the pinned calls in progress
+			 */
+			public void recycle() {
+				for (;;) {
+					int current = stamp;
+					if ((current & STATE_MASK) == CLOSING)
+						continue; // termination about to complete
+					int next = ((current & ~STATE_MASK) + (1 << STATE_BITS)) | RECYCLED;
+					if (STAMP_UPDATER.compareAndSet(this, current, next))
+						break;
+				}
+				while (activeCalls != 0)
+					Thread.yield();
+			}
+			
+			/**
+			 * Fold a similar oneshot event in this summary event, pinned by the caller. Concurrent folds do not wait for each other
+			 * @param pinnedStamp the stamp returned by the pin of this record
+			 * @return true if folded. False if out of the roll up window, cancelled (even while folding), published or recycled
+			 */
+			public boolean rollUp(int pinnedStamp, long time, String message, long window) {
+				// pinned before reading the state : either the publication waits for this fold or the fold sees the publication
+				int generation = pinnedStamp & ~STATE_MASK;
+				if (stamp != (generation | TERMINATED))
 					return false;
-				if (event.getMessage() == null) {
-					if (other.getMessage() != null)
-						return false;
-				} else if (!event.getMessage().equals(other.getMessage()))
+				if (time - startTime >= window)
 					return false;
-				return true;
+				ROLLED_UP_COUNT_UPDATER.incrementAndGet(this);
+				for (;;) {
+					long current = endTime;
+					if (time <= current || END_TIME_UPDATER.compareAndSet(this, current, time))
+						break;
+				}
+				addRolledUpMessage(message != null ? message : NULL_MESSAGE);
+				// cancelled while folding : the summary gets discarded, the caller must not count on it. Publication waits for this fold
+				int current = stamp;
+				return current == (generation | TERMINATED) || current == (generation | PUBLISHED);
+			}
+			
+			private void addRolledUpMessage(String message) {
+				for (int i=0; i<rolledUpMessages.length(); i++) {
+					String slot = rolledUpMessages.get(i);
+					if (slot == null) {
+						if (rolledUpMessages.compareAndSet(i, null, message))
+							return;
+						slot = rolledUpMessages.get(i); // claimed meanwhile
+					}
+					if (slot == message || slot.equals(message))
+						return;
+				}
+				// sample full
+			}
+			
+			public boolean isDelivered() {
+				return deliveredSequence != 0;
+			}
+			
+			public boolean isDelivered(long changeSequence) {
+				return deliveredSequence == changeSequence;
+			}
+			
+			/**
+			 * @param changeSequence the event sequence, read before the delivered event values
+			 */
+			public void deliver(long changeSequence) {
+				deliveredSequence = changeSequence;
+			}
+			
+			public long getSequence() {
+				return sequence;
+			}
+			
+			public int getRetainedSize() {
+				return retainedSize;
+			}
+			
+			public JzrEventSlab<JzrEventInfoImpl> getSlab() {
+				return slab;
+			}
+			
+			private static JzrEvent copy(JzrEvent evt) {
+				if (evt.getClass() == JzrStandardEvent.class) {
+					// monomorphic fast path for the most common event class
+					JzrStandardEvent standardEvent = (JzrStandardEvent) evt;
+					return standardEvent.isFrozen() ? standardEvent : new JzrStandardEvent(standardEvent);
+				}
+				return (JzrEvent)evt.clone();
+			}
+			
+			private int estimateIdSize() {
+				if (numericId != 0)
+					// string id not rendered yet : code abbreviation, separator and up to 19 digits
+					return STRING_SIZE_OVERHEAD + 2 * (code.getAbbreviation().length() + 20);
+				return estimateSize(indexId);
+			}
+			
+			/**
+			 * Get the event numeric index key. 
+			 * Only standard events get indexed by numeric id : subclasses may override getId
+			 * @return the numeric id or 0 if the event must be indexed by its string id
+			 */
+			public static long getNumericId(JzrEvent event) {
+				if (event.getClass() == JzrStandardEvent.class)
+					return ((JzrStandardEvent) event).getNumericId();
+				return 0;
+			}
+			
+			/**
+			 * Checks if the event has an id, without rendering the standard event ids
+			 * @return true if the event has a numeric or non empty string id
+			 */
+			public static boolean hasId(JzrEvent event) {
+				if (getNumericId(event) != 0)
+					return true;
+				String id = event.getId();
+				return id != null && !id.isEmpty();
+			}
+			
+			public long getNumericId() {
+				return numericId;
+			}
+			
+			/**
+			 * @return the string index key, or null if indexed by numeric id
+			 */
+			public String getIndexId() {
+				return indexId;
+			}
+			
+			private static int estimateSize(String value) {
+				if (value == null)
+					return 0;
+				return STRING_SIZE_OVERHEAD + 2 * value.length(); // worst case : no compact strings
+			}
+			
+			public void setSequence(long sequence) {
+				this.sequence = sequence;
+			}
+			
+			/**
+			 * Compares the origin fingerprints first : distinct origins get rejected without string comparison
+			 * @return true if both events share the same origin
+			 */
+			public boolean hasOrigin(JzrEventInfoImpl other) {
+				return originFingerprint == other.originFingerprint && getOrigin().equals(other.getOrigin());
+			}
+			
+			public JzrEventOrigin getOrigin() {
+				JzrEventOrigin result = origin;
+				if (result == null) {
+					result = new JzrEventOrigin(source, service, code, message, originFingerprint);
+					origin = result;  // immutable : benign race
+				}
+				return result;
 			}
 			
-			public boolean isTimeContemporary(JzrEventInfoImpl other) {
+			public boolean isTimeContemporary(JzrEventInfoImpl other, long window) {
 				if (other == null)
 					return false;
 				
-				// Arbitrary decision : events are considered contemporary if both happening within 5 sec range
+				// events are considered contemporary if both happening within the window range
 				long diffTime = other.startTime > this.startTime ? 
 						other.startTime - this.startTime : this.startTime - other.startTime;
-				return diffTime < 5000L;
+				return diffTime < window;
 			}
 		}
 
@@ -1397,6 +3520,12 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 		public List<JzrPublisherEvent> consumePublisherEvents() {
 			return eventMgr.fetchPublisherEvents();
 		}
+		
+		@Override
+		public List<JzrPublisherEvent> awaitAndConsumePublisherEvents(long timeout) {
+			this.eventMgr.awaitPublisherEvents(timeout);
+			return eventMgr.fetchPublisherEvents();
+		}
 	}
 	
 	private static final class JeyzerPublisherNoImpl extends JeyzerPublisher{
@@ -1504,6 +3633,11 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 			return new JzrActionHandlerNoImpl();
 		}
 		
+		@Override
+		public void registerCodes(Class<? extends Enum<? extends JzrEventCode>> codeClass) {
+			// do nothing
+		}
+		
 		private static final class JzrActionHandlerNoImpl implements JzrActionHandler{
 		
 			@Override
@@ -1522,33 +3656,58 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 			}
 		}
 		
-		private static final class JzrMonitorHandlerNoImpl implements JzrMonitorHandler{
+		private static final class JzrMonitorHandlerNoImpl implements JzrStatusMonitorHandler{
 
 			@Override
 			public boolean fireSystemEvent(JzrEvent event) {
 				return true;
 			}
+			
+			@Override
+			public JzrFireStatus fireSystemEventWithStatus(JzrEvent event) {
+				return JzrFireStatus.ACCEPTED;
+			}
 
 			@Override
 			public boolean fireGlobalEvent(JzrEvent event) {
 				return true;
 			}
+			
+			@Override
+			public JzrFireStatus fireGlobalEventWithStatus(JzrEvent event) {
+				return JzrFireStatus.ACCEPTED;
+			}
 
 			@Override
 			public boolean fireLocalThreadEvent(JzrEvent event) {
 				return true;
 			}
+			
+			@Override
+			public JzrFireStatus fireLocalThreadEventWithStatus(JzrEvent event) {
+				return JzrFireStatus.ACCEPTED;
+			}
 
 			@Override
 			public boolean startGlobalEvent(JzrEvent event) {
 				return true;
 			}
+			
+			@Override
+			public JzrFireStatus startGlobalEventWithStatus(JzrEvent event) {
+				return JzrFireStatus.ACCEPTED;
+			}
 
 			@Override
 			public boolean startLocalThreadEvent(JzrEvent event) {
 				return true;
 			}
 			
+			@Override
+			public JzrFireStatus startLocalThreadEventWithStatus(JzrEvent event) {
+				return JzrFireStatus.ACCEPTED;
+			}
+			
 			@Override
 			public boolean terminateEvent(JzrEvent event) {
 				return true;
@@ -1579,12 +3738,37 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 		public List<JzrEventInfo> consumeEvents() {
 			return new ArrayList<JzrEventInfo>(0);
 		}
+		
+		@Override
+		public JzrEventBatch consumeEventsSince(long cursor) {
+			return new JzrEventBatchImpl(0, 0, new ArrayList<JzrEventInfo>(0), new ArrayList<String>(0));
+		}
+		
+		@Override
+		public JzrEventBatch consumeEventBatch(long cursor) {
+			return new JzrEventBatchImpl(0, 0, new ArrayList<JzrEventInfo>(0), new ArrayList<String>(0));
+		}
+		
+		@Override
+		public List<JzrEventInfo> awaitAndConsumeEvents(long timeout, int batchSize) {
+			return new ArrayList<JzrEventInfo>(0);
+		}
+		
+		@Override
+		public void acknowledgeEventBatch(long batchId) {
+			// do nothing
+		}
 
 		@Override
 		public JzrMonitorHandler getMonitorHandler(String source, String service) {
 			return new JzrMonitorHandlerNoImpl();
 		}
 
+		@Override
+		public JzrStatusMonitorHandler getStatusMonitorHandler(String source, String service) {
+			return new JzrMonitorHandlerNoImpl();
+		}
+
 		@Override
 		public List<JzrPublisherEvent> consumePublisherEvents() {
 			if (getEventsFirstCall) {
@@ -1599,6 +3783,11 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 				return new ArrayList<JzrPublisherEvent>(0);
 		}
 
+		@Override
+		public List<JzrPublisherEvent> awaitAndConsumePublisherEvents(long timeout) {
+			return consumePublisherEvents();
+		}
+
 		@Override
 		public List<JzrPublisherEvent> getPublisherEvents() {
 			if (getEventsFirstCall) {
@@ -1641,5 +3830,15 @@ public abstract class JeyzerPublisher implements JeyzerMXBean{
 		public boolean isEventCollectionActive(JzrEventLevel level) {
 			return false;
 		}
+
+		@Override
+		public long getEventsMemoryUsage(JzrEventLevel level) {
+			return 0;
+		}
+
+		@Override
+		public Map<String, Long> getTopEventOrigins() {
+			return new HashMap<>();
+		}
 	}
 }
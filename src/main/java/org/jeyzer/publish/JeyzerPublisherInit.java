@@ -24,9 +24,37 @@ package org.jeyzer.publish;
 * <li> <code>events.info.limit</code> : the maximum number of applicative info events that the Jeyzer Publisher can keep between 2 Jeyzer Recorder collections. Must be higher than 1000 which is the default.</li>
 * <li> <code>events.warning.limit</code> : the maximum number of applicative warning events that the Jeyzer Publisher can keep between 2 Jeyzer Recorder collections. Must be higher than 1000 which is the default.</li>
 * <li> <code>events.critical.limit</code> : the maximum number of applicative critical events that the Jeyzer Publisher can keep between 2 Jeyzer Recorder collections. Must be higher than 1000 which is the default.</li>
+* <li> <code>events.info.max.bytes</code> : the estimated memory that the applicative info events kept between 2 Jeyzer Recorder collections can retain. Enforced on top of the events limit. No memory limit by default.</li>
+* <li> <code>events.warning.max.bytes</code> : the estimated memory that the applicative warning events kept between 2 Jeyzer Recorder collections can retain. Enforced on top of the events limit. No memory limit by default.</li>
+* <li> <code>events.critical.max.bytes</code> : the estimated memory that the applicative critical events kept between 2 Jeyzer Recorder collections can retain. Enforced on top of the events limit. No memory limit by default.</li>
+* <li> <code>events.info.dedup.window</code> : the time window in ms during which similar applicative info events (same source, service, code and message) get suppressed in favor of the first one, which reports the suppression count. 5000 by default. 0 disables it.</li>
+* <li> <code>events.warning.dedup.window</code> : the time window in ms during which similar applicative warning events (same source, service, code and message) get suppressed in favor of the first one, which reports the suppression count. 5000 by default. 0 disables it.</li>
+* <li> <code>events.critical.dedup.window</code> : the time window in ms during which similar applicative critical events (same source, service, code and message) get suppressed in favor of the first one, which reports the suppression count. 5000 by default. 0 disables it.</li>
+* <li> <code>events.dedup.window.&lt;code abbreviation&gt;</code> : the deduplication time window in ms for the given event code. Overrides the level one.</li>
+* <li> <code>events.rollup.window.&lt;code abbreviation&gt;</code> : the time window in ms during which the fired events of the given event code get rolled up per source and service in one summary event, holding the count, the first and last times and a sample of the distinct messages. No roll up by default.</li>
+* <li> <code>events.rate.limit</code> : the maximum number of applicative events per second accepted for each event code and source. Events above it get dropped and counted. No limit by default.</li>
+* <li> <code>events.rate.limit.&lt;code abbreviation&gt;</code> : the maximum number of applicative events per second accepted for the given event code and each source. Overrides the <code>events.rate.limit</code> one. 0 disables it.</li>
+* <li> <code>events.rate.burst</code> : the number of applicative events accepted at once, before the rate limit applies. One second of events by default.</li>
+* <li> <code>events.info.sampling.target.rate</code> : the number of fired applicative info events per second above which they get sampled. The acceptance ratio adapts to the measured fire rate and is published with each event. No sampling by default.</li>
+* <li> <code>events.warning.sampling.target.rate</code> : the number of fired applicative warning events per second above which they get sampled. The acceptance ratio adapts to the measured fire rate and is published with each event. No sampling by default. Critical events are never sampled.</li>
+* <li> <code>events.info.started.ttl</code> : the time in ms after which the applicative info events started and not yet terminated get terminated or cancelled (see <code>events.started.expiry.action</code>). No time to live by default.</li>
+* <li> <code>events.warning.started.ttl</code> : the time in ms after which the applicative warning events started and not yet terminated get terminated or cancelled (see <code>events.started.expiry.action</code>). No time to live by default.</li>
+* <li> <code>events.critical.started.ttl</code> : the time in ms after which the applicative critical events started and not yet terminated get terminated or cancelled (see <code>events.started.expiry.action</code>). No time to live by default.</li>
+* <li> <code>events.started.ttl.&lt;code abbreviation&gt;</code> : the time to live in ms of the started events of the given event code. Overrides the level one. 0 disables it.</li>
+* <li> <code>events.started.expiry.action</code> : the action applied on the started events exceeding their time to live : <code>terminate</code> (default) or <code>cancel</code>.</li>
+* <li> <code>events.source.cardinality.limit</code> : the maximum number of distinct monitor handler sources. Beyond it, new sources get collapsed into the <code>[overflow]</code> source and a publisher event is raised once. No limit by default.</li>
+* <li> <code>events.service.cardinality.limit</code> : the maximum number of distinct monitor handler services. Beyond it, new services get collapsed into the <code>[overflow]</code> service and a publisher event is raised once. No limit by default.</li>
+* <li> <code>events.message.cardinality.limit</code> : the maximum number of distinct applicative event messages per event code. Beyond it, new messages get collapsed into the <code>[overflow]</code> message and a publisher event is raised once per event code. No limit by default.</li>
 * <li> <code>events.info.disable.collection</code> : if set to true, applicative info events are not issued. False by default. Can be re-enabled by calling the <code>resumeEventCollection</code> method (locally or through JMX).</li>
 * <li> <code>events.warning.disable.collection</code> : if set to true, applicative warning events are not issued. False by default. Can be re-enabled by calling the <code>resumeEventCollection</code> method (locally or through JMX).</li>
 * <li> <code>events.critical.disable.collection</code> : if set to true, applicative critical events are not issued. False by default. Can be re-enabled by calling the <code>resumeEventCollection</code> method (locally or through JMX).</li>
+* <li> <code>events.acknowledgement.retention.limit</code> : the maximum number of consumed events and cancelled event ids that the Jeyzer Publisher can retain while waiting for the Jeyzer Recorder acknowledgement. Oldest unacknowledged batches get dropped beyond it. The last consumed batch is always retained. 10000 by default.</li>
+* <li> <code>events.enable.striping</code> : if set to true, each event level storage is split in stripes (one per processor) written by distinct application threads, to reduce contention on multi-core hosts. Event limits are split evenly across the stripes, a full stripe overflowing in the other ones. The memory limit is shared by all the stripes. Stripes get merged by event start time on publication. Disabled by default.</li>
+* <li> <code>events.enable.slab</code> : if set to true, each event level gets a fixed size slab of reusable event records (twice the event limit), recycled once the events are collected. Standard events get captured without copy : the event records are not allocated, unlike the index entries. Consumers receive copies of the pooled records. Disabled by default.</li>
+* <li> <code>events.eviction.policy</code> : the event to drop when an event level limit is reached. <code>oldest</code> (default) drops the oldest event. <code>priority</code> drops the oldest event of the lowest sub level, terminated events going before the open ones. <code>fair</code> shares the limit across the event sources (or services) and drops the oldest event of the one the most over its share.</li>
+* <li> <code>events.fair.share.key</code> : the event attribute sharing the event limits with the <code>fair</code> eviction policy : <code>source</code> (default) or <code>service</code>.</li>
+* <li> <code>events.fair.share.weight.&lt;source or service&gt;</code> : the weight of the given source (or service) share with the <code>fair</code> eviction policy. 1 by default.</li>
+* <li> <code>events.expiry.age</code> : the time in ms after which the events not yet collected get dropped. Events are kept in 10 seconds time slices, expired at once. Not applicable with the <code>priority</code> and <code>fair</code> eviction policies. No expiry by default.</li>
 * <li> <code>publisher.disable.action.context.reaper</code> : if set to true, reaping is performed during context access. Useful for application servers which get re-deployed : it prevents reaper thread leaking. By default the reaper is started.</li>
 * <li> <code>publisher.enable.jzr_recorder_collection.event</code> : if set to true, the publisher will issue publisher info events marking each Jeyzer Recorder collection. Disabled by default.</li>
 * </ul>
@@ -66,6 +94,155 @@ public class JeyzerPublisherInit {
 	 */
 	public static final String EVENTS_CRITICAL_LIMIT_PROPERTY = "events.critical.limit";
 	
+	/**
+	 * The estimated memory (in bytes) that the applicative info events kept between 2 Jeyzer Recorder collections can retain. 
+	 * Enforced on top of the events limit : events get dropped as when the events limit is reached. 
+	 * No memory limit by default.
+	 */
+	public static final String EVENTS_INFO_MAX_BYTES_PROPERTY = "events.info.max.bytes";
+	
+	/**
+	 * The estimated memory (in bytes) that the applicative warning events kept between 2 Jeyzer Recorder collections can retain. 
+	 * Enforced on top of the events limit : events get dropped as when the events limit is reached. 
+	 * No memory limit by default.
+	 */
+	public static final String EVENTS_WARNING_MAX_BYTES_PROPERTY = "events.warning.max.bytes";
+	
+	/**
+	 * The estimated memory (in bytes) that the applicative critical events kept between 2 Jeyzer Recorder collections can retain. 
+	 * Enforced on top of the events limit : events get dropped as when the events limit is reached. 
+	 * No memory limit by default.
+	 */
+	public static final String EVENTS_CRITICAL_MAX_BYTES_PROPERTY = "events.critical.max.bytes";
+	
+	/**
+	 * The time window in ms during which similar applicative info events (same source, service, code and message) get suppressed in favor of the first one. 
+	 * The first event reports the suppression count. Applies until the first event gets published. 
+	 * 5000 by default. 0 disables it.
+	 */
+	public static final String EVENTS_INFO_DEDUP_WINDOW_PROPERTY = "events.info.dedup.window";
+	
+	/**
+	 * The time window in ms during which similar applicative warning events (same source, service, code and message) get suppressed in favor of the first one. 
+	 * The first event reports the suppression count. Applies until the first event gets published. 
+	 * 5000 by default. 0 disables it.
+	 */
+	public static final String EVENTS_WARNING_DEDUP_WINDOW_PROPERTY = "events.warning.dedup.window";
+	
+	/**
+	 * The time window in ms during which similar applicative critical events (same source, service, code and message) get suppressed in favor of the first one. 
+	 * The first event reports the suppression count. Applies until the first event gets published. 
+	 * 5000 by default. 0 disables it.
+	 */
+	public static final String EVENTS_CRITICAL_DEDUP_WINDOW_PROPERTY = "events.critical.dedup.window";
+	
+	/**
+	 * Prefix of the event code deduplication time window properties. 
+	 * The event code abbreviation must be appended : <code>events.dedup.window.&lt;code abbreviation&gt;</code>. 
+	 * Overrides the event level deduplication window. 0 disables it.
+	 */
+	public static final String EVENTS_DEDUP_WINDOW_PROPERTY_PREFIX = "events.dedup.window.";
+	
+	/**
+	 * Prefix of the event code roll up time window properties. 
+	 * The event code abbreviation must be appended : <code>events.rollup.window.&lt;code abbreviation&gt;</code>. 
+	 * Within the window, the fired events of the given event code get folded per source and service in one summary event, 
+	 * holding the count, the first and last times and a sample of the distinct messages. 
+	 * The window restarts once the summary event is published. No roll up by default.
+	 */
+	public static final String EVENTS_ROLLUP_WINDOW_PROPERTY_PREFIX = "events.rollup.window.";
+	
+	/**
+	 * The maximum number of applicative events per second accepted for each event code and source. 
+	 * Events above it get dropped and counted. Dropped event counts are reported through one publisher event per Jeyzer Recorder collection. 
+	 * No limit by default.
+	 */
+	public static final String EVENTS_RATE_LIMIT_PROPERTY = "events.rate.limit";
+	
+	/**
+	 * Prefix of the event code rate limit properties. 
+	 * The event code abbreviation must be appended : <code>events.rate.limit.&lt;code abbreviation&gt;</code>. 
+	 * Overrides the <code>events.rate.limit</code> one. 0 disables it.
+	 */
+	public static final String EVENTS_RATE_LIMIT_PROPERTY_PREFIX = "events.rate.limit.";
+	
+	/**
+	 * The number of applicative events accepted at once, before the rate limit applies. 
+	 * One second of events by default.
+	 */
+	public static final String EVENTS_RATE_BURST_PROPERTY = "events.rate.burst";
+	
+	/**
+	 * The number of fired applicative info events per second above which they get sampled. 
+	 * The acceptance ratio adapts to the measured fire rate and is published with each event. Started events are not sampled. 
+	 * No sampling by default.
+	 */
+	public static final String EVENTS_INFO_SAMPLING_TARGET_RATE_PROPERTY = "events.info.sampling.target.rate";
+	
+	/**
+	 * The number of fired applicative warning events per second above which they get sampled. 
+	 * The acceptance ratio adapts to the measured fire rate and is published with each event. Started events are not sampled. 
+	 * No sampling by default. Critical events are never sampled.
+	 */
+	public static final String EVENTS_WARNING_SAMPLING_TARGET_RATE_PROPERTY = "events.warning.sampling.target.rate";
+	
+	/**
+	 * The time in ms after which the applicative info events started and not yet terminated get terminated or cancelled. 
+	 * Expiry is checked every second by the publisher reaper thread, or on event consumption if the reaper is disabled. 
+	 * No time to live by default.
+	 */
+	public static final String EVENTS_INFO_STARTED_TTL_PROPERTY = "events.info.started.ttl";
+	
+	/**
+	 * The time in ms after which the applicative warning events started and not yet terminated get terminated or cancelled. 
+	 * Expiry is checked every second by the publisher reaper thread, or on event consumption if the reaper is disabled. 
+	 * No time to live by default.
+	 */
+	public static final String EVENTS_WARNING_STARTED_TTL_PROPERTY = "events.warning.started.ttl";
+	
+	/**
+	 * The time in ms after which the applicative critical events started and not yet terminated get terminated or cancelled. 
+	 * Expiry is checked every second by the publisher reaper thread, or on event consumption if the reaper is disabled. 
+	 * No time to live by default.
+	 */
+	public static final String EVENTS_CRITICAL_STARTED_TTL_PROPERTY = "events.critical.started.ttl";
+	
+	/**
+	 * Prefix of the event code started event time to live properties. 
+	 * The event code abbreviation must be appended : <code>events.started.ttl.&lt;code abbreviation&gt;</code>. 
+	 * Overrides the event level time to live. 0 disables it.
+	 */
+	public static final String EVENTS_STARTED_TTL_PROPERTY_PREFIX = "events.started.ttl.";
+	
+	/**
+	 * The action applied on the started events exceeding their time to live : 
+	 * <code>terminate</code> (default) publishes them with the expiry time as end time, 
+	 * <code>cancel</code> drops them, as if cancelled by the application.
+	 */
+	public static final String EVENTS_STARTED_EXPIRY_ACTION_PROPERTY = "events.started.expiry.action";
+	
+	/**
+	 * The maximum number of distinct monitor handler sources. 
+	 * Beyond it, new sources get collapsed into the <code>[overflow]</code> source and a publisher event is raised once. 
+	 * No limit by default.
+	 */
+	public static final String EVENTS_SOURCE_CARDINALITY_LIMIT_PROPERTY = "events.source.cardinality.limit";
+	
+	/**
+	 * The maximum number of distinct monitor handler services. 
+	 * Beyond it, new services get collapsed into the <code>[overflow]</code> service and a publisher event is raised once. 
+	 * No limit by default.
+	 */
+	public static final String EVENTS_SERVICE_CARDINALITY_LIMIT_PROPERTY = "events.service.cardinality.limit";
+	
+	/**
+	 * The maximum number of distinct applicative event messages per event code. 
+	 * Beyond it, new messages get collapsed into the <code>[overflow]</code> message, which keeps them deduplicated, 
+	 * and a publisher event is raised once per event code. 
+	 * No limit by default.
+	 */
+	public static final String EVENTS_MESSAGE_CARDINALITY_LIMIT_PROPERTY = "events.message.cardinality.limit";
+	
 	/**
 	 * If set to true, applicative info events are not issued. False by default. 
 	 * Can be re-enabled by calling the <code>resumeEventCollection</code> method (locally or through JMX).
@@ -84,6 +261,61 @@ public class JeyzerPublisherInit {
 	 */
 	public static final String EVENTS_CRITICAL_DISABLE_COLLECTION_PROPERTY = "events.critical.disable.collection";
 	
+	/**
+	 * The maximum number of consumed events and cancelled event ids that the Jeyzer Publisher can retain while waiting for the Jeyzer Recorder acknowledgement. 
+	 * Oldest unacknowledged batches get dropped beyond it. The last consumed batch is always retained. 10000 by default.
+	 */
+	public static final String EVENTS_ACKNOWLEDGEMENT_RETENTION_LIMIT_PROPERTY = "events.acknowledgement.retention.limit";
+	
+	/**
+	 * If set to true, each event level storage is split in stripes (one per processor) written by distinct application threads, to reduce contention on multi-core hosts. 
+	 * Event limits are split evenly across the stripes, a full stripe overflowing in the other ones. The memory limit is shared by all the stripes. 
+	 * Stripes get merged by event start time on publication.
+	 * Disabled by default.
+	 */
+	public static final String EVENTS_ENABLE_STRIPING_PROPERTY = "events.enable.striping";
+	
+	/**
+	 * If set to true, each event level gets a fixed size slab of reusable event records, twice the event limit. 
+	 * Fired and started events claim a free record, which gets recycled as soon as the event is collected, dropped or expired. 
+	 * Standard events get captured without copy : the event record is not allocated. 
+	 * Index entries and deduplication origins still get allocated on each fire, as well as the copies of the other events. 
+	 * Events get allocated as usual if the slab is exhausted. Consumers receive copies of the pooled records.
+	 * Disabled by default.
+	 */
+	public static final String EVENTS_ENABLE_SLAB_PROPERTY = "events.enable.slab";
+	
+	/**
+	 * The event to drop when an event level limit is reached. 
+	 * <code>oldest</code> (default) drops the oldest event. 
+	 * <code>priority</code> drops the oldest event of the lowest sub level, terminated events going before the open ones. 
+	 * The incoming event gets dropped if all the kept events are more important. 
+	 * <code>fair</code> shares the limit across the event sources (or services) in proportion of their weights 
+	 * and drops the oldest event of the one holding the most events relatively to its weight : a chatty source cannot push out the events of the others.
+	 */
+	public static final String EVENTS_EVICTION_POLICY_PROPERTY = "events.eviction.policy";
+	
+	/**
+	 * The event attribute sharing the event limits with the <code>fair</code> eviction policy : 
+	 * <code>source</code> (default) or <code>service</code>.
+	 */
+	public static final String EVENTS_FAIR_SHARE_KEY_PROPERTY = "events.fair.share.key";
+	
+	/**
+	 * Prefix of the fair share weight properties. 
+	 * The source (or service) name must be appended : <code>events.fair.share.weight.&lt;source or service&gt;</code>. 
+	 * A source with weight 2 keeps twice as many events as a source with weight 1 when the limit is reached. 1 by default.
+	 */
+	public static final String EVENTS_FAIR_SHARE_WEIGHT_PROPERTY_PREFIX = "events.fair.share.weight.";
+	
+	/**
+	 * The time in ms after which the events not yet collected get dropped. 
+	 * Events are kept in 10 seconds time slices, expired at once. Open events re-queued on collection enter a new time slice. 
+	 * Not applicable with the <code>priority</code> and <code>fair</code> eviction policies. 
+	 * No expiry by default.
+	 */
+	public static final String EVENTS_EXPIRY_AGE_PROPERTY = "events.expiry.age";
+	
 	/**
 	 * if set to true, reaping is performed during context access. 
 	 * Useful for application servers which get re-deployed : it prevents reaper thread leaking. 
@@ -0,0 +1,68 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Internal cardinality guard of an event attribute (source, service or message of an event code).<br>
+ * Keeps the distinct values up to the limit : beyond it, new values collapse into the overflow value.<br>
+ * Values must be known exactly to let the already seen ones through : the tracking is a bounded set, not an estimation.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventCardinalityGuard {
+
+	static final String OVERFLOW_VALUE = "[overflow]";
+
+	private final Set<String> values = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	private final AtomicInteger count = new AtomicInteger(0);
+	private final AtomicBoolean overflowReported = new AtomicBoolean(false);
+	private final int limit;
+
+	/**
+	 * @param limit the maximum number of distinct values
+	 */
+	JzrEventCardinalityGuard(int limit) {
+		this.limit = limit;
+	}
+
+	/**
+	 * Admit the value
+	 * @param value the attribute value, null passes through
+	 * @return the value itself if known or admitted, the overflow value otherwise
+	 */
+	String guard(String value) {
+		if (value == null || values.contains(value))
+			return value;
+		if (count.get() >= limit)
+			return OVERFLOW_VALUE;
+		// concurrent admissions may exceed the limit by the number of racing threads
+		if (values.add(value))
+			count.incrementAndGet();
+		return value;
+	}
+
+	/**
+	 * @return true only on the first call : the overflow must be reported once
+	 */
+	boolean reportOverflow() {
+		return !overflowReported.get() && overflowReported.compareAndSet(false, true);
+	}
+}
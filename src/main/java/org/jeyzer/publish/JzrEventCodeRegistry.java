@@ -0,0 +1,99 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.Arrays;
+
+import org.jeyzer.mx.event.JzrEventCode;
+
+/**
+ * <p>
+ * Internal table of the pre-registered event codes.<br>
+ * Each registered code gets a dense ordinal : its enum ordinal shifted by the offset of its enum class.
+ * Per code values can then be kept in flat arrays indexed by ordinal.<br>
+ * Registered enum classes are few : the ordinal lookup is a scan of the class table, without hashing nor allocation.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventCodeRegistry {
+
+	static final int UNREGISTERED = -1;
+
+	// Copy on write, guarded by this
+	private volatile Class<?>[] codeClasses = new Class<?>[0];
+	private volatile int[] offsets = new int[0];
+	private volatile JzrEventCode[] codes = new JzrEventCode[0];
+
+	/**
+	 * Register the codes of the given enum. Codes already registered are ignored
+	 * @param codeClass the event code enum class
+	 * @return true if the codes got registered
+	 */
+	synchronized boolean register(Class<? extends Enum<? extends JzrEventCode>> codeClass) {
+		if (codeClass == null || !codeClass.isEnum())
+			return false;
+		for (Class<?> registered : codeClasses)
+			if (registered == codeClass)
+				return false;
+
+		Enum<? extends JzrEventCode>[] constants = codeClass.getEnumConstants();
+		int offset = codes.length;
+		JzrEventCode[] extendedCodes = Arrays.copyOf(codes, offset + constants.length);
+		for (Enum<? extends JzrEventCode> constant : constants)
+			extendedCodes[offset + constant.ordinal()] = (JzrEventCode) constant;
+
+		Class<?>[] extendedClasses = Arrays.copyOf(codeClasses, codeClasses.length + 1);
+		extendedClasses[codeClasses.length] = codeClass;
+		int[] extendedOffsets = Arrays.copyOf(offsets, offsets.length + 1);
+		extendedOffsets[offsets.length] = offset;
+
+		// codes first : an ordinal never points beyond them
+		this.codes = extendedCodes;
+		this.offsets = extendedOffsets;
+		this.codeClasses = extendedClasses;
+		return true;
+	}
+
+	/**
+	 * Get the code ordinal
+	 * @param code the event code
+	 * @return the code ordinal, or UNREGISTERED if the code enum is not registered
+	 */
+	int ordinal(JzrEventCode code) {
+		if (!(code instanceof Enum))
+			return UNREGISTERED;
+		Enum<?> constant = (Enum<?>) code;
+		Class<?> codeClass = constant.getDeclaringClass();
+		Class<?>[] classes = this.codeClasses;
+		for (int i=0; i<classes.length; i++)
+			if (classes[i] == codeClass)
+				return this.offsets[i] + constant.ordinal();
+		return UNREGISTERED;
+	}
+
+	/**
+	 * Get the registered code
+	 * @param ordinal the code ordinal
+	 * @return the code
+	 */
+	JzrEventCode getCode(int ordinal) {
+		return codes[ordinal];
+	}
+
+	/**
+	 * @return the number of registered codes
+	 */
+	int size() {
+		return codes.length;
+	}
+}
@@ -0,0 +1,82 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+/**
+ * <p>
+ * Internal 64 bits fingerprint of an event origin : event code abbreviation, source, service and message.<br>
+ * Every character gets mixed in a 64 bits state : unlike a combination of the 32 bits String hash codes,
+ * distinct origins collide with a probability close to 2^-64.<br>
+ * The fingerprint is built in two steps : the origin regardless of the message, to compute once per event code and handler,
+ * then the message one, extending it.<br>
+ * Equal origins have equal fingerprints. Distinct origins with equal fingerprints are unlikely but possible :
+ * exact matches must still compare the origin attributes.
+ * </p>
+ */
+final class JzrEventFingerprint {
+
+	private static final long SEED = 0x9e3779b97f4a7c15L;
+	private static final long PRIME = 0x100000001b3L;  // FNV 64 bits prime
+	private static final long NULL_HASH = 0x632be59bd9b4e019L;
+
+	private JzrEventFingerprint() {}
+
+	/**
+	 * @param code the event code abbreviation. Mandatory
+	 * @param source the event source. Mandatory
+	 * @param service the event service. Can be null
+	 * @return the origin fingerprint, regardless of the message
+	 */
+	static long of(String code, String source, String service) {
+		long hash = SEED;
+		hash = hash(hash, code);
+		hash = hash(hash, source);
+		hash = service != null ? hash(hash, service) : combine(hash, NULL_HASH);
+		return mix(hash);
+	}
+
+	/**
+	 * @param originFingerprint the origin fingerprint, regardless of the message
+	 * @param message the event message. Can be null
+	 * @return the origin fingerprint including the message. The origin one if the message is null
+	 */
+	static long of(long originFingerprint, String message) {
+		if (message == null)
+			return originFingerprint;
+		return mix(hash(originFingerprint, message));
+	}
+
+	private static long hash(long hash, String value) {
+		int length = value.length();
+		for (int i=0; i<length; i++)
+			hash = (hash ^ value.charAt(i)) * PRIME;
+		// length closes the value : ("ab", "c") and ("a", "bc") differ
+		return combine(hash, length);
+	}
+
+	private static long combine(long hash, long value) {
+		hash ^= value;
+		hash *= SEED;
+		return hash ^ (hash >>> 32);
+	}
+
+	private static long mix(long hash) {
+		// 64 bits finalizer (MurmurHash3)
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
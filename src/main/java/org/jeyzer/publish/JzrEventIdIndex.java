@@ -0,0 +1,171 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * Internal concurrent index of elements keyed by numeric id.<br>
+ * Ids are kept as longs in open addressing tables : lookups compare primitive keys, without boxing.<br>
+ * Tables are split in segments. Lookups are lock free, updates lock the segment of the id.<br>
+ * A removed entry keeps its id slot until the segment table gets rebuilt, on growth or shrink.<br>
+ * Id 0 is reserved : it stands for the empty slots.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventIdIndex<E> {
+
+	private static final int SEGMENT_BITS = 4;
+	private static final int INITIAL_TABLE_SIZE = 32;  // power of 2
+
+	private static final class Table<E> {
+		// Key set after the value : a reader finding the key finds the value
+		private final AtomicLongArray keys;
+		private final AtomicReferenceArray<E> values;
+		private final int mask;
+		private int usedSlots;  // guarded by the segment
+
+		private Table(int size) {
+			this.keys = new AtomicLongArray(size);
+			this.values = new AtomicReferenceArray<>(size);
+			this.mask = size - 1;
+		}
+
+		private int slot(long id, long hash) {
+			int index = (int) hash & mask;
+			for (;;) {
+				long key = keys.get(index);
+				if (key == id || key == 0)
+					return index;
+				index = (index + 1) & mask;
+			}
+		}
+	}
+
+	private static final class Segment<E> {
+		private volatile Table<E> table = new Table<>(INITIAL_TABLE_SIZE);
+		private int size;  // guarded by this
+	}
+
+	private final Segment<E>[] segments;
+
+	@SuppressWarnings("unchecked")
+	JzrEventIdIndex() {
+		this.segments = (Segment<E>[]) new Segment<?>[1 << SEGMENT_BITS];
+		for (int i=0; i<segments.length; i++)
+			segments[i] = new Segment<>();
+	}
+
+	/**
+	 * @param id the numeric id
+	 * @return the element or null if not found
+	 */
+	E get(long id) {
+		if (id == 0)
+			return null;
+		long hash = mix(id);
+		Table<E> table = segmentFor(hash).table;
+		int index = table.slot(id, hash);
+		return table.keys.get(index) == id ? table.values.get(index) : null;
+	}
+
+	boolean containsKey(long id) {
+		return get(id) != null;
+	}
+
+	/**
+	 * Index the element, replacing any element with the same id
+	 * @param id the numeric id. Not 0
+	 * @param element the element to index. Not null
+	 */
+	void put(long id, E element) {
+		long hash = mix(id);
+		Segment<E> segment = segmentFor(hash);
+		synchronized(segment) {
+			Table<E> table = segment.table;
+			int index = table.slot(id, hash);
+			if (table.keys.get(index) == id) {
+				if (table.values.getAndSet(index, element) == null)
+					segment.size++;
+				return;
+			}
+			if ((table.usedSlots + 1) * 4 > (table.mask + 1) * 3) {
+				table = rebuild(segment, segment.size + 1);
+				index = table.slot(id, hash);
+			}
+			table.values.set(index, element);
+			table.keys.set(index, id);
+			table.usedSlots++;
+			segment.size++;
+		}
+	}
+
+	/**
+	 * Remove the element if still indexed under the id
+	 * @param id the numeric id
+	 * @param element the element to remove
+	 * @return true if removed
+	 */
+	boolean remove(long id, E element) {
+		if (id == 0)
+			return false;
+		long hash = mix(id);
+		Segment<E> segment = segmentFor(hash);
+		synchronized(segment) {
+			Table<E> table = segment.table;
+			int index = table.slot(id, hash);
+			if (table.keys.get(index) != id || !table.values.compareAndSet(index, element, null))
+				return false;
+			segment.size--;
+			if (segment.size * 8 < table.mask + 1 && table.mask + 1 > INITIAL_TABLE_SIZE)
+				rebuild(segment, segment.size);
+			return true;
+		}
+	}
+
+	private Table<E> rebuild(Segment<E> segment, int entries) {
+		int size = INITIAL_TABLE_SIZE;
+		while (size < entries * 4)
+			size <<= 1;
+		Table<E> current = segment.table;
+		Table<E> rebuilt = new Table<>(size);
+		for (int i=0; i<=current.mask; i++) {
+			E element = current.values.get(i);
+			if (element == null)
+				continue; // empty or removed
+			long id = current.keys.get(i);
+			int index = rebuilt.slot(id, mix(id));
+			rebuilt.values.set(index, element);
+			rebuilt.keys.set(index, id);
+			rebuilt.usedSlots++;
+		}
+		segment.table = rebuilt;  // published once complete
+		return rebuilt;
+	}
+
+	private Segment<E> segmentFor(long hash) {
+		return segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+	}
+
+	private static long mix(long id) {
+		// 64 bits finalizer (MurmurHash3) : spreads the time based ids
+		id ^= id >>> 33;
+		id *= 0xff51afd7ed558ccdL;
+		id ^= id >>> 33;
+		id *= 0xc4ceb9fe1a85ec53L;
+		id ^= id >>> 33;
+		return id;
+	}
+}
@@ -0,0 +1,160 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Internal heavy hitter tracker of the event origins : event code, source and service.<br>
+ * Fixed memory Count-Min sketch estimating the number of events per origin, 
+ * plus a small min-heap keeping the origins with the highest estimations.<br>
+ * The sketch update is lock free. The heap gets updated only for origins above the heap minimum, 
+ * one time out of {@value #HEAP_UPDATE_PERIOD}.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventOriginSketch {
+
+	private static final int DEPTH = 4;
+	private static final int WIDTH = 1024; // power of 2
+	private static final int HEAP_UPDATE_PERIOD = 16; // power of 2
+	
+	private static final class Origin {
+		private final String code;
+		private final String source;
+		private final String service;
+		private final long hash;
+		private long count;  // estimation at last heap update
+
+		private Origin(String code, String source, String service, long hash) {
+			this.code = code;
+			this.source = source;
+			this.service = service;
+			this.hash = hash;
+		}
+
+		private boolean matches(String code, String source, String service) {
+			return this.code.equals(code) && this.source.equals(source) 
+					&& (this.service == null ? service == null : this.service.equals(service));
+		}
+
+		@Override
+		public String toString() {
+			return service != null ? code + " / " + source + " / " + service : code + " / " + source;
+		}
+	}
+
+	private static final Comparator<Origin> COUNT_COMPARATOR = new Comparator<Origin>() {
+		@Override
+		public int compare(Origin origin1, Origin origin2) {
+			return Long.compare(origin1.count, origin2.count);
+		}
+	};
+
+	private final AtomicLongArray counters = new AtomicLongArray(DEPTH * WIDTH);
+	private final int topSize;
+
+	// Guarded by this
+	private final PriorityQueue<Origin> heap;
+	private final Map<Long, Origin> heapIndex = new HashMap<>();
+	private volatile long heapMinimum = 0;
+
+	JzrEventOriginSketch(int topSize) {
+		this.topSize = topSize;
+		this.heap = new PriorityQueue<>(topSize, COUNT_COMPARATOR);
+	}
+
+	/**
+	 * @param code the event code abbreviation
+	 * @param source the event source
+	 * @param service the event service. Can be null
+	 * @param hash the origin fingerprint, message excluded
+	 */
+	void add(String code, String source, String service, long hash) {
+		long estimation = Long.MAX_VALUE;
+		for (int i=0; i<DEPTH; i++) {
+			int index = index(hash, i);
+			long count = counters.incrementAndGet(index);
+			if (count < estimation)
+				estimation = count;
+		}
+
+		if (estimation > heapMinimum && (estimation & (HEAP_UPDATE_PERIOD - 1)) == 0)
+			updateHeap(code, source, service, hash, estimation);
+	}
+
+	/**
+	 * @return the origins with the highest estimated event counts, highest first
+	 */
+	Map<String, Long> getTopOrigins() {
+		List<Origin> origins = new ArrayList<>(topSize);
+		synchronized(this) {
+			for (Origin origin : heap) {
+				// copy with refreshed estimation
+				Origin copy = new Origin(origin.code, origin.source, origin.service, origin.hash);
+				copy.count = estimate(origin.hash);
+				origins.add(copy);
+			}
+		}
+		Collections.sort(origins, Collections.reverseOrder(COUNT_COMPARATOR));
+
+		Map<String, Long> topOrigins = new LinkedHashMap<>();
+		for (Origin origin : origins)
+			topOrigins.put(origin.toString(), origin.count);
+		return topOrigins;
+	}
+
+	private synchronized void updateHeap(String code, String source, String service, long hash, long estimation) {
+		Origin origin = heapIndex.get(hash);
+		if (origin != null && origin.matches(code, source, service)) {
+			heap.remove(origin);
+		}
+		else {
+			if (origin != null)
+				return; // hash collision : keep the first origin
+			if (heap.size() >= topSize) {
+				if (estimation <= heap.peek().count)
+					return;
+				heapIndex.remove(heap.poll().hash);
+			}
+			origin = new Origin(code, source, service, hash);
+			heapIndex.put(hash, origin);
+		}
+		origin.count = estimation;
+		heap.add(origin);
+		heapMinimum = heap.size() < topSize ? 0 : heap.peek().count;
+	}
+
+	private long estimate(long hash) {
+		long estimation = Long.MAX_VALUE;
+		for (int i=0; i<DEPTH; i++)
+			estimation = Math.min(estimation, counters.get(index(hash, i)));
+		return estimation;
+	}
+
+	private static int index(long hash, int row) {
+		// double hashing : row hash = h1 + row * h2
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		return row * WIDTH + ((h1 + row * h2) & (WIDTH - 1));
+	}
+}
@@ -0,0 +1,229 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jeyzer.mx.event.JzrEventInfo;
+
+/**
+ * <p>
+ * Internal event rate limiter.<br>
+ * One token bucket per event code and source, implemented as a generic cell rate algorithm :
+ * each bucket holds the theoretical arrival time of the next event, updated with a single compare and set.<br>
+ * Buckets of the registered event codes are found by code ordinal, without hashing the code abbreviation.<br>
+ * Rejected events are only counted, per bucket.<br>
+ * Idle buckets get discarded on collection : a bucket which caught up with the nominal rate behaves as a new one.
+ * A concurrent event may get accepted on a discarded bucket, at worst.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventRateLimiter {
+
+	private static final long ONE_SECOND = 1000000000L; // ns
+
+	private static final class TokenBucket {
+		private final long emissionInterval;  // ns between 2 events at the nominal rate
+		private final long burstTolerance;    // ns of advance accepted on the theoretical arrival time
+		private final AtomicLong theoreticalArrivalTime;
+		private final AtomicLong droppedEvents = new AtomicLong(0);
+
+		private TokenBucket(long rate, int burst) {
+			this.emissionInterval = Math.max(ONE_SECOND / rate, 1);
+			this.burstTolerance = this.emissionInterval * (burst - 1);
+			this.theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+		}
+
+		private boolean tryAcquire() {
+			long now = System.nanoTime();
+			for (;;) {
+				long arrival = theoreticalArrivalTime.get();
+				long next = arrival - now > 0 ? arrival : now;
+				if (next - now > burstTolerance) {
+					droppedEvents.incrementAndGet();
+					return false;
+				}
+				if (theoreticalArrivalTime.compareAndSet(arrival, next + emissionInterval))
+					return true;
+			}
+		}
+
+		private boolean isIdle(long now) {
+			return theoreticalArrivalTime.get() - now <= 0 && droppedEvents.get() == 0;
+		}
+	}
+
+	/*
+	 * Buckets of a registered event code, per source
+	 */
+	private static final class CodeBuckets {
+		private final String abbreviation;
+		private final long rate;
+		private final ConcurrentMap<String, TokenBucket> sourceBuckets = new ConcurrentHashMap<>();
+
+		private CodeBuckets(String abbreviation, long rate) {
+			this.abbreviation = abbreviation;
+			this.rate = rate;
+		}
+	}
+
+	private final long defaultRate;  // events per second, 0 if unlimited
+	private final Map<String, Long> codeRates;
+	private final int burst;
+
+	// Per source, then per event code abbreviation. Unregistered event codes
+	private final ConcurrentMap<String, ConcurrentMap<String, TokenBucket>> buckets = new ConcurrentHashMap<>();
+	// Per registered event code ordinal. Null entry if unlimited. Copy on write, guarded by this
+	private volatile CodeBuckets[] codeBuckets = new CodeBuckets[0];
+
+	/**
+	 * @param defaultRate the maximum number of events per second for each event code and source. 0 if unlimited
+	 * @param codeRates the rates overriding the default one, per event code abbreviation. 0 if unlimited
+	 * @param burst the number of events accepted at once. The rate if 0
+	 */
+	JzrEventRateLimiter(long defaultRate, Map<String, Long> codeRates, int burst) {
+		this.defaultRate = defaultRate;
+		this.codeRates = codeRates;
+		this.burst = burst;
+	}
+
+	/**
+	 * @param event the event to accept
+	 * @return false if the event exceeds the rate of its code and source
+	 */
+	boolean tryAcquire(JzrEventInfo event) {
+		TokenBucket bucket = getBucket(event);
+		return bucket == null || bucket.tryAcquire();
+	}
+
+	/**
+	 * @param event the event to accept
+	 * @param codeOrdinal the event code ordinal, or JzrEventCodeRegistry.UNREGISTERED
+	 * @return false if the event exceeds the rate of its code and source
+	 */
+	boolean tryAcquire(JzrEventInfo event, int codeOrdinal) {
+		CodeBuckets[] table = this.codeBuckets;
+		if (codeOrdinal < 0 || codeOrdinal >= table.length)
+			return tryAcquire(event); // not resolved yet
+		
+		CodeBuckets entry = table[codeOrdinal];
+		if (entry == null)
+			return true;  // unlimited
+		TokenBucket bucket = entry.sourceBuckets.get(event.getSource());
+		if (bucket == null) {
+			TokenBucket created = createBucket(entry.rate);
+			bucket = entry.sourceBuckets.putIfAbsent(event.getSource(), created);
+			if (bucket == null)
+				bucket = created;
+		}
+		return bucket.tryAcquire();
+	}
+
+	/**
+	 * Resolve the rates of the newly registered event codes
+	 * @param registry the event code registry
+	 */
+	synchronized void resolveCodes(JzrEventCodeRegistry registry) {
+		CodeBuckets[] table = this.codeBuckets;
+		int size = registry.size();
+		if (size <= table.length)
+			return;
+		CodeBuckets[] extended = Arrays.copyOf(table, size);
+		for (int ordinal = table.length; ordinal < size; ordinal++) {
+			String abbreviation = registry.getCode(ordinal).getAbbreviation();
+			long rate = getRate(abbreviation);
+			if (rate > 0)
+				extended[ordinal] = new CodeBuckets(abbreviation, rate);
+		}
+		this.codeBuckets = extended;
+	}
+
+	/**
+	 * Collect the number of events dropped since last call, and discard the idle buckets
+	 * @param droppedEvents the map to fill with the dropped event count per source and code abbreviation
+	 * @return the total number of dropped events
+	 */
+	long collectDroppedEvents(Map<String, Long> droppedEvents) {
+		long total = 0;
+		long now = System.nanoTime();
+		for (Map.Entry<String, ConcurrentMap<String, TokenBucket>> sourceEntry : buckets.entrySet()) {
+			ConcurrentMap<String, TokenBucket> sourceBuckets = sourceEntry.getValue();
+			for (Map.Entry<String, TokenBucket> codeEntry : sourceBuckets.entrySet()) {
+				total += collectDroppedEvents(codeEntry.getKey(), sourceEntry.getKey(), codeEntry.getValue(), droppedEvents);
+				if (codeEntry.getValue().isIdle(now))
+					sourceBuckets.remove(codeEntry.getKey(), codeEntry.getValue());
+			}
+			if (sourceBuckets.isEmpty())
+				buckets.remove(sourceEntry.getKey(), sourceBuckets);
+		}
+		for (CodeBuckets entry : this.codeBuckets) {
+			if (entry == null)
+				continue;
+			for (Map.Entry<String, TokenBucket> sourceEntry : entry.sourceBuckets.entrySet()) {
+				total += collectDroppedEvents(entry.abbreviation, sourceEntry.getKey(), sourceEntry.getValue(), droppedEvents);
+				if (sourceEntry.getValue().isIdle(now))
+					entry.sourceBuckets.remove(sourceEntry.getKey(), sourceEntry.getValue());
+			}
+		}
+		return total;
+	}
+
+	private long collectDroppedEvents(String abbreviation, String source, TokenBucket bucket, Map<String, Long> droppedEvents) {
+		long dropped = bucket.droppedEvents.getAndSet(0);
+		if (dropped == 0)
+			return 0;
+		// code may have been counted before its registration
+		String key = abbreviation + " from " + source;
+		Long previous = droppedEvents.get(key);
+		droppedEvents.put(key, previous != null ? previous + dropped : dropped);
+		return dropped;
+	}
+
+	private TokenBucket getBucket(JzrEventInfo event) {
+		String abbreviation = event.getCode().getAbbreviation();
+		
+		ConcurrentMap<String, TokenBucket> sourceBuckets = buckets.get(event.getSource());
+		if (sourceBuckets != null) {
+			TokenBucket bucket = sourceBuckets.get(abbreviation);
+			if (bucket != null)
+				return bucket;
+		}
+
+		long rate = getRate(abbreviation);
+		if (rate <= 0)
+			return null;  // unlimited
+
+		if (sourceBuckets == null) {
+			sourceBuckets = new ConcurrentHashMap<>();
+			ConcurrentMap<String, TokenBucket> previous = buckets.putIfAbsent(event.getSource(), sourceBuckets);
+			if (previous != null)
+				sourceBuckets = previous;
+		}
+		TokenBucket bucket = createBucket(rate);
+		TokenBucket previous = sourceBuckets.putIfAbsent(abbreviation, bucket);
+		return previous != null ? previous : bucket;
+	}
+
+	private TokenBucket createBucket(long rate) {
+		return new TokenBucket(rate, this.burst > 0 ? this.burst : (int) Math.min(rate, Integer.MAX_VALUE));
+	}
+
+	private long getRate(String abbreviation) {
+		Long rate = codeRates.get(abbreviation);
+		return rate != null ? rate : defaultRate;
+	}
+}
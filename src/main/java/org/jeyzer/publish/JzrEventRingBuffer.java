@@ -0,0 +1,161 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Internal fixed capacity event store, evicting the oldest element first.<br>
+ * Multi producer / multi consumer ring buffer : each slot carries a sequence number
+ * which tells producers and consumers if the slot is free or published.<br>
+ * Offer, poll and size are constant time operations. No allocation is done once the buffer is created.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventRingBuffer<E> implements JzrEventStore<E> {
+
+	private final Object[] slots;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final int capacity;
+
+	private final AtomicLong head = new AtomicLong(0); // next position to consume
+	private final AtomicLong tail = new AtomicLong(0); // next position to produce
+
+	JzrEventRingBuffer(int capacity) {
+		if (capacity < 1)
+			capacity = 1;
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size = size << 1;
+
+		this.capacity = capacity;
+		this.mask = size - 1;
+		this.slots = new Object[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i=0; i<size; i++)
+			this.sequences.set(i, i);
+	}
+
+	/**
+	 * Add the element at the tail of the buffer
+	 * @param element the element to add
+	 * @return false if the buffer is full
+	 */
+	@Override
+	public boolean offer(E element) {
+		long position = tail.get();
+		for (;;) {
+			if (position - head.get() >= capacity)
+				return false;
+			int index = (int) position & mask;
+			long diff = sequences.get(index) - position;
+			if (diff == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					slots[index] = element;
+					sequences.set(index, position + 1); // publish
+					return true;
+				}
+				position = tail.get();
+			}
+			else if (diff < 0) {
+				return false; // slot not yet released by a consumer
+			}
+			else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Remove the element at the head of the buffer
+	 * @return the head element or null if none published
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public E poll() {
+		long position = head.get();
+		for (;;) {
+			int index = (int) position & mask;
+			long diff = sequences.get(index) - (position + 1);
+			if (diff == 0) {
+				if (head.compareAndSet(position, position + 1)) {
+					E element = (E) slots[index];
+					slots[index] = null;
+					sequences.set(index, position + mask + 1); // release the slot for the next round
+					return element;
+				}
+				position = head.get();
+			}
+			else if (diff < 0) {
+				return null; // empty or producer still writing
+			}
+			else {
+				position = head.get();
+			}
+		}
+	}
+
+	/**
+	 * Remove the oldest element, whatever the incoming one
+	 * @param incoming the element waiting for a place
+	 * @return the head element or null if none published
+	 */
+	@Override
+	public E evict(E incoming) {
+		return poll();
+	}
+
+	/**
+	 * Not partitioned in time : nothing to expire
+	 */
+	@Override
+	public void expire(long threshold, List<? super E> expired) {
+		// nothing to do
+	}
+
+	/**
+	 * Collect the published elements without consuming them.
+	 * Weakly consistent : elements consumed or added meanwhile may be missed.
+	 * @param elements the list to fill
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void snapshot(List<? super E> elements) {
+		long end = tail.get();
+		for (long position = head.get(); position < end; position++) {
+			int index = (int) position & mask;
+			if (sequences.get(index) != position + 1)
+				continue; // not published or already consumed
+			E element = (E) slots[index];
+			if (element != null && sequences.get(index) == position + 1)
+				elements.add(element);
+		}
+	}
+
+	@Override
+	public int size() {
+		long size = tail.get() - head.get();
+		if (size < 0)
+			return 0;
+		return size > capacity ? capacity : (int) size;
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+}
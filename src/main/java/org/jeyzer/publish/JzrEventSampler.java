@@ -0,0 +1,72 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Internal adaptive event sampler.<br>
+ * Measures the fire rate on time windows and adjusts the acceptance ratio to hold the target rate.<br>
+ * The measured rate is smoothed across windows to avoid oscillations.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventSampler {
+
+	private static final long WINDOW = 1000L; // ms
+	private static final double SMOOTHING = 0.5;
+	private static final float MIN_RATIO = 0.0001f;
+
+	private final long targetRate; // events per second
+
+	private final AtomicLong fired = new AtomicLong(0);
+	private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+	private volatile double smoothedRate = 0;  // written by the window roll only
+	private volatile float ratio = 1f;
+
+	/**
+	 * @param targetRate the number of accepted events per second to hold
+	 */
+	JzrEventSampler(long targetRate) {
+		this.targetRate = targetRate;
+	}
+
+	/**
+	 * Decide if the fired event must be kept
+	 * @return the acceptance ratio if kept, 0 if dropped
+	 */
+	float sample() {
+		long start = windowStart.get();
+		long now = System.currentTimeMillis();
+		if (now - start >= WINDOW && windowStart.compareAndSet(start, now))
+			roll(now - start);
+		fired.incrementAndGet();
+
+		float current = this.ratio;
+		if (current >= 1f || ThreadLocalRandom.current().nextFloat() < current)
+			return current;
+		return 0f;
+	}
+
+	private void roll(long elapsed) {
+		// single thread here : the window start CAS winner
+		double rate = fired.getAndSet(0) * 1000d / elapsed;
+		smoothedRate = smoothedRate == 0 ? rate : SMOOTHING * rate + (1 - SMOOTHING) * smoothedRate;
+		if (smoothedRate <= targetRate)
+			ratio = 1f;
+		else
+			ratio = Math.max((float) (targetRate / smoothedRate), MIN_RATIO);
+	}
+}
@@ -0,0 +1,62 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+/**
+ * <p>
+ * Internal fixed size pool of reusable event records.<br>
+ * Producers claim a free record, fill it and return it to the slab once it is no longer stored.<br>
+ * Returned records are reusable immediately : the records must be retired beforehand,
+ * so that the threads which read them from the indexes in the meantime detect the reuse.<br>
+ * Records are kept in a ring buffer : claim and retire do not allocate.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventSlab<E> {
+
+	private final JzrEventRingBuffer<E> freeRecords;
+
+	JzrEventSlab(int capacity) {
+		this.freeRecords = new JzrEventRingBuffer<>(capacity);
+	}
+
+	/**
+	 * Add a new record in the slab
+	 * @param record the record to pool
+	 * @return false if the slab is full
+	 */
+	boolean add(E record) {
+		return freeRecords.offer(record);
+	}
+
+	/**
+	 * Claim a free record
+	 * @return the record or null if the slab is exhausted
+	 */
+	E claim() {
+		return freeRecords.poll();
+	}
+
+	/**
+	 * Return a record no longer stored. It becomes free immediately
+	 * @param record the retired record
+	 */
+	void retire(E record) {
+		// cannot be full : every record is either free or claimed
+		freeRecords.offer(record);
+	}
+
+	int capacity() {
+		return freeRecords.capacity();
+	}
+}
@@ -0,0 +1,64 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.List;
+
+/**
+ * <p>
+ * Internal fixed capacity event store.<br>
+ * Implementations decide which element gets sacrificed once the capacity is reached.<br>
+ * Thread safe
+ * </p>
+ */
+interface JzrEventStore<E> {
+
+	/**
+	 * Add the element in the store
+	 * @param element the element to add
+	 * @return false if the store is full
+	 */
+	boolean offer(E element);
+
+	/**
+	 * Remove any stored element. No ordering guarantee
+	 * @return the removed element or null if empty
+	 */
+	E poll();
+
+	/**
+	 * Remove the element to sacrifice in favor of the given one when the store is full.
+	 * @param incoming the element waiting for a place
+	 * @return the removed element, the incoming element itself if it is the one to sacrifice, or null if nothing could be removed
+	 */
+	E evict(E incoming);
+
+	/**
+	 * Remove the elements stored before the given time, when the store is partitioned in time.
+	 * Other stores don't expire anything.
+	 * @param threshold the time limit
+	 * @param expired the list to fill with the removed elements
+	 */
+	void expire(long threshold, List<? super E> expired);
+
+	/**
+	 * Collect the stored elements without consuming them.
+	 * Weakly consistent : elements consumed or added meanwhile may be missed.
+	 * @param elements the list to fill
+	 */
+	void snapshot(List<? super E> elements);
+
+	int size();
+
+	int capacity();
+}
@@ -0,0 +1,197 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * Internal hashed timing wheel of element deadlines.<br>
+ * Deadlines are hashed by tick in a fixed ring of buckets : scheduling and cancellation are constant time,
+ * each tick only visits its own bucket. Deadlines beyond one wheel rotation stay in their bucket until due.<br>
+ * Scheduling and cancellation are queued lock free, then applied by the caller if the wheel is free, by the current lock holder otherwise : 
+ * the queues stay bounded even if the wheel does not advance. 
+ * Advancing is serialized and meant to be driven by a single scheduler.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventTimingWheel<E> {
+
+	private static final int WHEEL_SIZE = 512; // power of 2
+
+	/**
+	 * Scheduled deadline, to cancel once the element is no longer concerned
+	 */
+	static final class Timeout<E> {
+		private static final int PENDING = 0;
+		private static final int CANCELLED = 1;
+		private static final int EXPIRED = 2;
+		
+		private final JzrEventTimingWheel<E> wheel;
+		private final E element;
+		private final long deadline;
+		private final AtomicInteger state = new AtomicInteger(PENDING);
+		
+		// bucket links, guarded by the wheel advance lock
+		private Timeout<E> prev;
+		private Timeout<E> next;
+		private int bucket = -1;
+
+		private Timeout(JzrEventTimingWheel<E> wheel, E element, long deadline) {
+			this.wheel = wheel;
+			this.element = element;
+			this.deadline = deadline;
+		}
+
+		E getElement() {
+			return element;
+		}
+
+		/**
+		 * @return true if cancelled before expiry
+		 */
+		boolean cancel() {
+			if (!state.compareAndSet(PENDING, CANCELLED))
+				return false;
+			wheel.cancelledTimeouts.add(this);
+			wheel.applyPending();
+			return true;
+		}
+	}
+
+	private final long tickDuration; // ms
+	private final Timeout<E>[] heads;
+	private final ConcurrentLinkedQueue<Timeout<E>> scheduledTimeouts = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<Timeout<E>> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+	
+	// Guards the buckets and the last tick
+	private final ReentrantLock lock = new ReentrantLock();
+	private long lastTick;
+
+	/**
+	 * @param tickDuration the wheel resolution in ms
+	 */
+	@SuppressWarnings("unchecked")
+	JzrEventTimingWheel(long tickDuration) {
+		this.tickDuration = tickDuration;
+		this.heads = (Timeout<E>[]) new Timeout<?>[WHEEL_SIZE];
+		this.lastTick = System.currentTimeMillis() / tickDuration;
+	}
+
+	/**
+	 * Create the element deadline. To schedule once referenced by the element
+	 * @param element the element to expire
+	 * @param deadline the expiry time in ms
+	 * @return the timeout to cancel if the element expiry is no longer required
+	 */
+	Timeout<E> newTimeout(E element, long deadline) {
+		return new Timeout<>(this, element, deadline);
+	}
+
+	/**
+	 * Schedule the element deadline
+	 * @param timeout the timeout created by this wheel
+	 */
+	void schedule(Timeout<E> timeout) {
+		scheduledTimeouts.add(timeout);
+		applyPending();
+	}
+
+	/**
+	 * Move the wheel up to the given time and collect the timeouts whose deadline is reached
+	 * @param now the current time in ms
+	 * @param expired the list to fill with the expired timeouts
+	 */
+	void advance(long now, List<? super Timeout<E>> expired) {
+		lock.lock();
+		try {
+			drainPending();
+			
+			// catch up : one rotation at most visits all the buckets
+			long tick = now / tickDuration;
+			long from = Math.max(lastTick + 1, tick - WHEEL_SIZE + 1);
+			for (long t = from; t <= tick; t++) {
+				int bucket = (int) (t & (WHEEL_SIZE - 1));
+				Timeout<E> timeout = heads[bucket];
+				while (timeout != null) {
+					Timeout<E> next = timeout.next;
+					if (timeout.deadline <= now) {
+						unlink(timeout);
+						if (timeout.state.compareAndSet(Timeout.PENDING, Timeout.EXPIRED))
+							expired.add(timeout);
+					}
+					timeout = next;
+				}
+			}
+			if (tick > lastTick)
+				lastTick = tick;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Apply the queued schedules and cancellations if the wheel is free. 
+	 * Otherwise left to the lock holder, or to the next call if the lock holder drained the queues already
+	 */
+	private void applyPending() {
+		if (!lock.tryLock())
+			return;
+		try {
+			drainPending();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Guarded by the lock
+	private void drainPending() {
+		Timeout<E> timeout;
+		while ((timeout = cancelledTimeouts.poll()) != null)
+			unlink(timeout);
+		
+		while ((timeout = scheduledTimeouts.poll()) != null) {
+			if (timeout.state.get() == Timeout.CANCELLED)
+				continue;
+			// bucket of the first tick starting after the deadline. Late deadlines go in the next visited bucket
+			link(timeout, Math.max(timeout.deadline / tickDuration + 1, lastTick + 1));
+		}
+	}
+
+	private void link(Timeout<E> timeout, long tick) {
+		int bucket = (int) (tick & (WHEEL_SIZE - 1));
+		timeout.bucket = bucket;
+		timeout.next = heads[bucket];
+		if (heads[bucket] != null)
+			heads[bucket].prev = timeout;
+		heads[bucket] = timeout;
+	}
+
+	private void unlink(Timeout<E> timeout) {
+		if (timeout.bucket == -1)
+			return; // not linked yet : dropped when scheduled
+		if (timeout.prev != null)
+			timeout.prev.next = timeout.next;
+		else
+			heads[timeout.bucket] = timeout.next;
+		if (timeout.next != null)
+			timeout.next.prev = timeout.prev;
+		timeout.prev = null;
+		timeout.next = null;
+		timeout.bucket = -1;
+	}
+}
@@ -0,0 +1,196 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jeyzer.mx.event.JzrEventInfo;
+
+/**
+ * <p>
+ * Internal fixed capacity event store, sharing the capacity across the event sources (or services).<br>
+ * Elements are kept in one FIFO queue per share, each share getting a weight (1 by default).<br>
+ * Eviction takes the oldest element of the share holding the most elements relatively to its weight : 
+ * a chatty source only sacrifices its own events once the others stay within their share.
+ * The heaviest share is tracked on offer : eviction does not scan the shares.<br>
+ * Empty shares get released on polling : the number of shares stays bounded by the stored elements.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrFairShareEventStore<E extends JzrEventInfo> implements JzrEventStore<E> {
+
+	private static final long DEFAULT_WEIGHT = 1;
+	// share key of the events without service
+	private static final String NO_SERVICE = "";
+
+	private static final class Share<E> {
+		private final ConcurrentLinkedQueue<E> queue = new ConcurrentLinkedQueue<>();
+		// incremented before the queue offer
+		private final AtomicInteger count = new AtomicInteger(0);
+		private final long weight;
+		// one way : a released share is never reused, producers retry on a fresh one
+		private volatile boolean released = false;
+
+		private Share(long weight) {
+			this.weight = weight;
+		}
+
+		/**
+		 * @return true if this share holds more elements than the other one, relatively to their weights
+		 */
+		private boolean isHeavier(int extra, Share<?> other) {
+			return (count.get() + extra) * other.weight > other.count.get() * weight;
+		}
+	}
+
+	private final ConcurrentMap<String, Share<E>> shares = new ConcurrentHashMap<>();
+	private final Map<String, Long> weights;
+	private final boolean perService;
+	private final AtomicInteger count = new AtomicInteger(0);
+	private final int capacity;
+
+	// Share the most over its weight at the last offer. Eviction target
+	private volatile Share<E> heaviest;
+
+	JzrFairShareEventStore(int capacity, Map<String, Long> weights, boolean perService) {
+		if (capacity < 1)
+			capacity = 1;
+		this.capacity = capacity;
+		this.weights = weights;
+		this.perService = perService;
+	}
+
+	@Override
+	public boolean offer(E element) {
+		for (;;) {
+			int size = count.get();
+			if (size >= capacity)
+				return false;
+			if (count.compareAndSet(size, size + 1))
+				break;
+		}
+		append(element);
+		return true;
+	}
+
+	private void append(E element) {
+		for (;;) {
+			Share<E> share = getShare(element);
+			share.count.incrementAndGet();
+			share.queue.offer(element);
+			// share released meanwhile : take the element back unless already moved with the share
+			if (!share.released || !share.queue.remove(element)) {
+				Share<E> current = heaviest;
+				if (current != share && (current == null || current.released || share.isHeavier(0, current)))
+					heaviest = share;
+				return;
+			}
+			share.count.decrementAndGet();
+		}
+	}
+
+	@Override
+	public E poll() {
+		for (Map.Entry<String, Share<E>> entry : shares.entrySet()) {
+			Share<E> share = entry.getValue();
+			E element = share.queue.poll();
+			if (element != null) {
+				share.count.decrementAndGet();
+				count.decrementAndGet();
+				return element;
+			}
+			release(entry.getKey(), share);
+		}
+		return null; // empty or producers still writing
+	}
+
+	@Override
+	public E evict(E incoming) {
+		// share the most over its weight, counting the incoming element in its own share
+		Share<E> incomingShare = getShare(incoming);
+		Share<E> target = heaviest;
+		if (target == null || target.released || incomingShare.isHeavier(1, target))
+			target = incomingShare;
+		
+		E element = target.queue.poll();
+		if (element != null) {
+			target.count.decrementAndGet();
+			count.decrementAndGet();
+			return element;
+		}
+		// fall back on any share : producer still writing, or concurrent draining
+		return poll();
+	}
+
+	/**
+	 * Not partitioned in time : nothing to expire
+	 */
+	@Override
+	public void expire(long threshold, List<? super E> expired) {
+		// nothing to do
+	}
+
+	@Override
+	public void snapshot(List<? super E> elements) {
+		for (Share<E> share : shares.values())
+			elements.addAll(share.queue);
+	}
+
+	@Override
+	public int size() {
+		return count.get();
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	private void release(String key, Share<E> share) {
+		// flag first : producers check it after their offer and take their element back
+		share.released = true;
+		shares.remove(key, share);
+		// move back any element offered before the flag got visible
+		E element;
+		while ((element = share.queue.poll()) != null) {
+			share.count.decrementAndGet();
+			append(element);
+		}
+	}
+
+	private Share<E> getShare(E element) {
+		String key = perService ? element.getService() : element.getSource();
+		if (key == null)
+			key = NO_SERVICE;
+		Share<E> share = shares.get(key);
+		if (share == null || share.released) {
+			Long weight = weights.get(key);
+			Share<E> created = new Share<>(weight != null && weight > 0 ? weight : DEFAULT_WEIGHT);
+			for (;;) {
+				share = shares.putIfAbsent(key, created);
+				if (share == null)
+					return created;
+				if (!share.released)
+					return share;
+				shares.remove(key, share); // being released
+			}
+		}
+		return share;
+	}
+}
@@ -0,0 +1,120 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jeyzer.mx.event.JzrEventInfo;
+import org.jeyzer.mx.event.JzrEventSubLevel;
+
+/**
+ * <p>
+ * Internal fixed capacity event store, evicting the least important element first.<br>
+ * Elements are spread in one FIFO bucket per sub level and state (open or terminated) :
+ * eviction takes the oldest element of the lowest sub level, terminated events going before the open ones.<br>
+ * The incoming element gets itself rejected if all the stored elements are more important.<br>
+ * The state is evaluated at insertion time. Offer, poll and evict are constant time operations.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrPriorityEventStore<E extends JzrEventInfo> implements JzrEventStore<E> {
+
+	private static final int SUB_LEVELS = JzrEventSubLevel.values().length;
+	private static final int STATES = 2;  // terminated, open
+
+	// Lowest priority first
+	private final ConcurrentLinkedQueue<E>[] buckets;
+	private final AtomicInteger count = new AtomicInteger(0);
+	private final int capacity;
+
+	@SuppressWarnings("unchecked")
+	JzrPriorityEventStore(int capacity) {
+		if (capacity < 1)
+			capacity = 1;
+		this.capacity = capacity;
+		this.buckets = (ConcurrentLinkedQueue<E>[]) new ConcurrentLinkedQueue<?>[SUB_LEVELS * STATES];
+		for (int i=0; i<buckets.length; i++)
+			this.buckets[i] = new ConcurrentLinkedQueue<E>();
+	}
+
+	@Override
+	public boolean offer(E element) {
+		for (;;) {
+			int size = count.get();
+			if (size >= capacity)
+				return false;
+			if (count.compareAndSet(size, size + 1))
+				break;
+		}
+		buckets[getBucket(element)].offer(element);
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		for (int i=buckets.length-1; i>=0; i--) {
+			E element = buckets[i].poll();
+			if (element != null) {
+				count.decrementAndGet();
+				return element;
+			}
+		}
+		return null; // empty or producer still writing
+	}
+
+	@Override
+	public E evict(E incoming) {
+		int limit = getBucket(incoming);
+		for (int i=0; i<=limit; i++) {
+			E element = buckets[i].poll();
+			if (element != null) {
+				count.decrementAndGet();
+				return element;
+			}
+		}
+		return incoming; // all stored elements are more important
+	}
+
+	/**
+	 * Not partitioned in time : nothing to expire
+	 */
+	@Override
+	public void expire(long threshold, List<? super E> expired) {
+		// nothing to do
+	}
+
+	@Override
+	public void snapshot(List<? super E> elements) {
+		for (ConcurrentLinkedQueue<E> bucket : buckets)
+			elements.addAll(bucket);
+	}
+
+	@Override
+	public int size() {
+		return count.get();
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	private int getBucket(E element) {
+		// sub levels are declared from the highest to the lowest
+		int rank = SUB_LEVELS - 1 - element.getCode().getSubLevel().ordinal();
+		boolean open = !element.isOneshot() && element.getEndTime() == -1;
+		return rank * STATES + (open ? 1 : 0);
+	}
+}
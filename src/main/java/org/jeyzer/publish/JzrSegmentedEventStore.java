@@ -0,0 +1,169 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Internal fixed capacity event store, partitioned in time slices.<br>
+ * Elements are appended to the segment of the current time slice. Eviction takes the oldest element first.<br>
+ * Segments older than a given time get detached at once : expiry doesn't need to walk the younger elements.<br>
+ * Offer, poll and evict are constant time operations. Segment roll and detach are serialized.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrSegmentedEventStore<E> implements JzrEventStore<E> {
+
+	private static final class Segment<E> {
+		private final long sliceEnd;
+		private final ConcurrentLinkedQueue<E> elements = new ConcurrentLinkedQueue<>();
+		private volatile boolean detached = false;
+
+		private Segment(long sliceEnd) {
+			this.sliceEnd = sliceEnd;
+		}
+	}
+
+	// Oldest first. Structure changes guarded by segmentsLock
+	private final ConcurrentLinkedQueue<Segment<E>> segments = new ConcurrentLinkedQueue<>();
+	private final Object segmentsLock = new Object();
+	private volatile Segment<E> current;
+
+	private final AtomicInteger count = new AtomicInteger(0);
+	private final int capacity;
+	private final long sliceDuration;
+
+	JzrSegmentedEventStore(int capacity, long sliceDuration) {
+		if (capacity < 1)
+			capacity = 1;
+		this.capacity = capacity;
+		this.sliceDuration = sliceDuration > 0 ? sliceDuration : 1;
+		this.current = new Segment<>(System.currentTimeMillis() + this.sliceDuration);
+		this.segments.add(this.current);
+	}
+
+	@Override
+	public boolean offer(E element) {
+		for (;;) {
+			int size = count.get();
+			if (size >= capacity)
+				return false;
+			if (count.compareAndSet(size, size + 1))
+				break;
+		}
+		append(element);
+		return true;
+	}
+
+	private void append(E element) {
+		for (;;) {
+			Segment<E> segment = getCurrentSegment();
+			segment.elements.add(element);
+			// segment detached meanwhile : take the element back unless already drained with the segment
+			if (!segment.detached || !segment.elements.remove(element))
+				return;
+		}
+	}
+
+	private Segment<E> getCurrentSegment() {
+		Segment<E> segment = this.current;
+		long now = System.currentTimeMillis();
+		if (now < segment.sliceEnd)
+			return segment;
+
+		synchronized(segmentsLock) {
+			if (this.current == segment) {
+				this.current = new Segment<>(now + sliceDuration);
+				this.segments.add(this.current);
+			}
+			return this.current;
+		}
+	}
+
+	@Override
+	public E poll() {
+		for (Segment<E> segment : segments) {
+			E element = segment.elements.poll();
+			if (element != null) {
+				count.decrementAndGet();
+				return element;
+			}
+			if (segment != this.current)
+				release(segment);
+		}
+		return null; // empty or producer still writing
+	}
+
+	@Override
+	public E evict(E incoming) {
+		return poll();
+	}
+
+	/**
+	 * Detach all the segments which time slice ended before the given time.
+	 * Current segment is never detached, but gets rolled first if its time slice ended without any producer doing it.
+	 * @param threshold the time limit
+	 * @param expired the list to fill with the elements of the detached segments
+	 */
+	@Override
+	public void expire(long threshold, List<? super E> expired) {
+		synchronized(segmentsLock) {
+			getCurrentSegment();
+			Segment<E> segment;
+			while ((segment = segments.peek()) != null && segment != this.current && segment.sliceEnd <= threshold) {
+				detach(segment);
+				E element;
+				while ((element = segment.elements.poll()) != null) {
+					count.decrementAndGet();
+					expired.add(element);
+				}
+			}
+		}
+	}
+
+	private void release(Segment<E> segment) {
+		// empty segment : detach it and move back any late element
+		synchronized(segmentsLock) {
+			if (segment.detached || segment == this.current)
+				return;
+			detach(segment);
+		}
+		E element;
+		while ((element = segment.elements.poll()) != null)
+			append(element);
+	}
+
+	private void detach(Segment<E> segment) {
+		segment.detached = true;
+		segments.remove(segment);
+	}
+
+	@Override
+	public void snapshot(List<? super E> elements) {
+		for (Segment<E> segment : segments)
+			elements.addAll(segment.elements);
+	}
+
+	@Override
+	public int size() {
+		return count.get();
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+}
@@ -0,0 +1,67 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import org.jeyzer.publish.event.JzrEvent;
+import org.jeyzer.publish.event.JzrFireStatus;
+
+
+/**
+ * <p>
+ * JzrMonitor handler reporting the detailed outcome of the event fire and start calls.<br>
+ * The status tells why an event got discarded, to back off on rejection.<br>
+ * </p>
+ *  
+ *  <p>
+ *  Handlers are obtained from the Jeyzer Publisher instance.<br>
+ *  Thread safe
+ *  </p>
+ */
+public interface JzrStatusMonitorHandler extends JzrMonitorHandler {
+
+	/**
+	 * Same as {@link #fireSystemEvent(JzrEvent) fireSystemEvent} with the detailed outcome.
+	 * @param event the event to fire
+	 * @return the fire status
+	 */
+	public JzrFireStatus fireSystemEventWithStatus(JzrEvent event);
+	
+	/**
+	 * Same as {@link #fireGlobalEvent(JzrEvent) fireGlobalEvent} with the detailed outcome.
+	 * @param event the event to fire
+	 * @return the fire status
+	 */
+	public JzrFireStatus fireGlobalEventWithStatus(JzrEvent event);
+
+	/**
+	 * Same as {@link #fireLocalThreadEvent(JzrEvent) fireLocalThreadEvent} with the detailed outcome.
+	 * @param event the event to fire
+	 * @return the fire status
+	 */
+	public JzrFireStatus fireLocalThreadEventWithStatus(JzrEvent event);
+
+	/**
+	 * Same as {@link #startGlobalEvent(JzrEvent) startGlobalEvent} with the detailed outcome.
+	 * @param event the event to start
+	 * @return the fire status
+	 */
+	public JzrFireStatus startGlobalEventWithStatus(JzrEvent event);
+
+	/**
+	 * Same as {@link #startLocalThreadEvent(JzrEvent) startLocalThreadEvent} with the detailed outcome.
+	 * @param event the event to start
+	 * @return the fire status
+	 */
+	public JzrFireStatus startLocalThreadEventWithStatus(JzrEvent event);
+	
+}
@@ -0,0 +1,77 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Internal immutable set of thread ids.<br>
+ * Open addressing over a primitive array : constant time lookup without boxing, 
+ * built once from the live thread ids to test many candidate threads.<br>
+ * Thread safe once built
+ * </p>
+ */
+final class JzrThreadIdSet {
+
+	private static final long FREE = -1; // thread ids are positive
+
+	private final long[] slots;
+	private final int mask;
+
+	/**
+	 * @param threadIds the thread ids to hold
+	 */
+	JzrThreadIdSet(long[] threadIds) {
+		// load factor below 0.5
+		int capacity = Integer.highestOneBit(Math.max(threadIds.length, 1) * 4 - 1);
+		this.slots = new long[capacity];
+		this.mask = capacity - 1;
+		Arrays.fill(slots, FREE);
+		for (long threadId : threadIds)
+			add(threadId);
+	}
+
+	boolean contains(long threadId) {
+		int index = hash(threadId) & mask;
+		for (;;) {
+			long slot = slots[index];
+			if (slot == threadId)
+				return true;
+			if (slot == FREE)
+				return false;
+			index = (index + 1) & mask;
+		}
+	}
+
+	private void add(long threadId) {
+		int index = hash(threadId) & mask;
+		for (;;) {
+			long slot = slots[index];
+			if (slot == threadId)
+				return;
+			if (slot == FREE) {
+				slots[index] = threadId;
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+	}
+
+	private static int hash(long threadId) {
+		// thread ids are sequential : spread them
+		long h = threadId * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
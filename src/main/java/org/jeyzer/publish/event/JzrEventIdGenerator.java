@@ -0,0 +1,55 @@
+package org.jeyzer.publish.event;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Internal generator of the numeric event ids, unique within the JVM.<br>
+ * Id layout (63 bits) : milliseconds since 2020 (41 bits), sequence (16 bits), stripe (6 bits).<br>
+ * Threads are spread over 64 stripes, each one holding its own time based sequence : 
+ * ids of distinct stripes differ by their low bits, ids of the same stripe always increase.
+ * Beyond 65536 ids per millisecond on a stripe, the sequence borrows on the next milliseconds.<br>
+ * Thread safe
+ * </p>
+ */
+final class JzrEventIdGenerator {
+
+	private static final long EPOCH = 1577836800000L; // 2020-01-01 UTC
+	private static final int SEQUENCE_BITS = 16;
+	private static final int STRIPE_BITS = 6;
+	private static final int STRIPES = 1 << STRIPE_BITS;
+	private static final int PADDING = 8; // one cache line per stripe
+	
+	// last time based sequence (time and sequence bits) of each stripe
+	private static final AtomicLongArray lastSequences = new AtomicLongArray(STRIPES * PADDING);
+	
+	private JzrEventIdGenerator() {}
+	
+	/**
+	 * @return a new id, strictly positive
+	 */
+	static long nextId() {
+		int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+		int slot = stripe * PADDING;
+		long floor = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+		for (;;) {
+			long last = lastSequences.get(slot);
+			long next = Math.max(last + 1, floor);
+			if (lastSequences.compareAndSet(slot, last, next))
+				return (next << STRIPE_BITS) | stripe;
+		}
+	}
+}
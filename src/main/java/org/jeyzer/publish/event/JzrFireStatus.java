@@ -0,0 +1,83 @@
+package org.jeyzer.publish.event;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+
+/**
+ * <p>JzrFireStatus indicates the outcome of a monitoring event fire or start : <br></p>
+ * <ul> 
+ * <li> Accepted outcomes : the event (or its occurrence) will get published.</li>
+ * <li> Rejected outcomes : the event got discarded. Callers may back off and stop building events of the same kind for a while.</li>
+ * </ul>
+ */
+public enum JzrFireStatus {
+
+	/**
+	 * Event stored, waiting for publication
+	 */
+	ACCEPTED(true),
+	
+	/**
+	 * Event stored, at the expense of another stored event : the event level limit is reached
+	 */
+	ACCEPTED_WITH_EVICTION(true),
+	
+	/**
+	 * Event folded in the summary event of its code, source and service (roll up)
+	 */
+	ROLLED_UP(true),
+	
+	/**
+	 * Similar event (same source, service, code and message) already waiting for publication : occurrence counted on it
+	 */
+	DEDUPLICATED(false),
+	
+	/**
+	 * Event discarded by the adaptive sampling : the event level fire rate is too high
+	 */
+	SAMPLED_OUT(false),
+	
+	/**
+	 * Event discarded by the rate limiting of its code and source
+	 */
+	RATE_LIMITED(false),
+	
+	/**
+	 * Event discarded : the event level limit is reached and the stored events are more important, or the event exceeds the memory budget
+	 */
+	DROPPED(false),
+	
+	/**
+	 * Event discarded : the event level collection is suspended
+	 */
+	SUSPENDED(false),
+	
+	/**
+	 * Event discarded : the event is null or misses its id, code, level or sub level
+	 */
+	INVALID(false);
+	
+	private final boolean accepted;
+	
+	private JzrFireStatus(boolean accepted) {
+		this.accepted = accepted;
+	}
+	
+	/**
+	 * Determines if the event will get published
+	 * @return true if the event got stored or folded in a summary event
+	 */
+	public boolean isAccepted() {
+		return this.accepted;
+	}
+}
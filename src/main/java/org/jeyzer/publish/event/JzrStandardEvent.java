@@ -12,8 +12,6 @@ package org.jeyzer.publish.event;
  * ----------------------------LICENSE_END----------------------------
  */
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 import org.jeyzer.mx.event.JzrEventCode;
 
 
@@ -23,18 +21,21 @@ import org.jeyzer.mx.event.JzrEventCode;
  * Class can be used immediately in a a generic manner or extended.<br>
  * Events are created by the application and published through the Jeyzer Monitor handlers.<br>
  * The code and id must always be set otherwise the event will not get processed when fired or started.<br>
- * The event id is automatically set by concatenating the given code name and current system time.
+ * The event id is automatically generated : a numeric id unique within the JVM, 
+ * rendered as string by concatenating the given code abbreviation and the numeric id.
+ * The string id is rendered on demand for the standard events, upfront for the subclasses which may read the id field.
  * All other parameters are optional.<br></p>
+ * Events can be frozen : frozen events are immutable and get published by reference, without any copy on fire or start.<br>
  * Non thread safe<br>
  */
 public class JzrStandardEvent implements JzrEvent {
 	
-	// Required to distinguish events of same code generated at same exact time (already observed). 
-	// Possible values : from 0 to 9999
-	private static AtomicInteger idSuffix = new AtomicInteger(0);
-
 	protected JzrEventCode code;
+	// Always set on subclasses. Null on standard events unless set explicitly : the generated id gets rendered on demand
 	protected String id;
+	private long numericId;
+	private String renderedId;
+	private boolean frozen;
 	protected String message;
 	protected short trustFactor;
 
@@ -44,7 +45,7 @@ public class JzrStandardEvent implements JzrEvent {
 	 */
 	public JzrStandardEvent(JzrEventCode code) {
 		this.code = code;
-		this.id = code.getAbbreviation() + System.currentTimeMillis() + getSuffixId();
+		generateId();
 		this.message = code.getName();
 		this.trustFactor = 100;
 	}
@@ -56,7 +57,7 @@ public class JzrStandardEvent implements JzrEvent {
 	 */
 	public JzrStandardEvent(JzrEventCode code, String message) {
 		this.code = code;
-		this.id = code.getAbbreviation() + System.currentTimeMillis() + getSuffixId();
+		generateId();
 		this.message  = message != null && !message.isEmpty() ? message : code.getName();
 		this.message = message;
 		this.trustFactor = 100;
@@ -70,21 +71,33 @@ public class JzrStandardEvent implements JzrEvent {
 	 */
 	public JzrStandardEvent(JzrEventCode code, String message, short trustFactor) {
 		this.code = code;
-		this.id = code.getAbbreviation() + System.currentTimeMillis() + getSuffixId();
+		generateId();
 		this.message  = message != null && !message.isEmpty() ? message : code.getName();
 		this.trustFactor = trustFactor;
 	}
 	
 	/**
-	 * The Jeyzer cloning constructor
+	 * The Jeyzer cloning constructor. The copy is not frozen
 	 * @param event  	         the applicative event to clone.
 	 */
 	public JzrStandardEvent(JzrStandardEvent event) {
 		this.code = event.getCode();
-		this.id = event.getId();
+		if (event.getClass() == JzrStandardEvent.class && getClass() == JzrStandardEvent.class && event.getNumericId() != 0) {
+			this.numericId = event.getNumericId();
+			this.renderedId = event.renderedId;
+		}
+		else
+			this.id = event.getId();    // explicit id, or subclass one which may be overridden
 		this.message = event.getMessage();
 		this.trustFactor = event.getTrustFactor();
 	}
+	
+	private void generateId() {
+		this.numericId = JzrEventIdGenerator.nextId();
+		if (getClass() != JzrStandardEvent.class && code != null)
+			// subclasses may read the id field
+			this.id = code.getAbbreviation() + "-" + numericId;
+	}
 
 	/**
 	 * Get the applicative event code. Can be null.
@@ -101,7 +114,24 @@ public class JzrStandardEvent implements JzrEvent {
 	 */
 	@Override
 	public String getId() {
-		return id;
+		if (id != null)
+			return id;
+		String rendered = renderedId;
+		if (rendered == null && code != null) {
+			rendered = code.getAbbreviation() + "-" + numericId;
+			renderedId = rendered;  // immutable : benign race
+		}
+		return rendered;
+	}
+
+	/**
+	 * Get the applicative event numeric id, unique within the JVM. 
+	 * Permits to identify the event without rendering its string id.
+	 * Subclasses setting or overriding the id must return 0.
+	 * @return the applicative event numeric id, 0 if the event id is set explicitly or if the event is a subclass one
+	 */
+	public long getNumericId() {
+		return id == null ? numericId : 0;
 	}
 
 	/**
@@ -127,20 +157,35 @@ public class JzrStandardEvent implements JzrEvent {
 	 * @param trustFactor the applicative event trust factor
 	 */
 	public void setTrustFactor(short trustFactor) {
+		if (frozen)
+			return; // immutable
 		this.trustFactor = trustFactor;
 	}
+	
+	/**
+	 * Freeze the event : it becomes immutable and gets published by reference, without being cloned on fire or start. 
+	 * Subclasses must not modify a frozen event.
+	 * @return the event itself
+	 */
+	public JzrStandardEvent freeze() {
+		this.frozen = true;
+		return this;
+	}
+	
+	/**
+	 * Determines if the event is frozen
+	 * @return true if frozen
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
 
 	/**
 	 * Clone the event. 
-	 * @return  the cloned object
+	 * @return  the cloned object, or the event itself if frozen
 	 */
 	@Override
 	public Object clone() {
-		return new JzrStandardEvent(this);
-	}
-	
-	private static String getSuffixId() {
-		idSuffix.compareAndSet(10000, 0);
-		return "-" + idSuffix.incrementAndGet();
+		return frozen ? this : new JzrStandardEvent(this);
 	}
 }
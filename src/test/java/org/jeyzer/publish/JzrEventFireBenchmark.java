@@ -0,0 +1,108 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import java.util.Properties;
+
+import org.jeyzer.mx.event.JzrEventCode;
+import org.jeyzer.mx.event.JzrEventLevel;
+import org.jeyzer.mx.event.JzrEventSubLevel;
+import org.jeyzer.publish.event.JzrStandardEvent;
+
+/**
+ * <p>
+ * Fire cost harness : fires distinct info events on a growing backlog and prints the average fire duration per backlog step.
+ * The fire cost must stay flat as the backlog grows, including once the limit is reached and the oldest events get evicted.<br>
+ * Not a unit test : run it after the build with<br>
+ * <code>java -cp target/classes:target/test-classes org.jeyzer.publish.JzrEventFireBenchmark [events] [limit] [step]</code><br>
+ * Defaults are 100000 events on a 50000 limit, reported every 10000 events. Each run is preceded by a warm up one.
+ * </p>
+ */
+public final class JzrEventFireBenchmark {
+
+	private enum BenchmarkCode implements JzrEventCode {
+
+		BENCH_001;
+
+		@Override
+		public String getAbbreviation() {
+			return "BENCH";
+		}
+
+		@Override
+		public String getName() {
+			return "Benchmark event";
+		}
+
+		@Override
+		public String getDescription() {
+			return "Benchmark event";
+		}
+
+		@Override
+		public String getTicket() {
+			return null;
+		}
+
+		@Override
+		public String getType() {
+			return "benchmark";
+		}
+
+		@Override
+		public JzrEventLevel getLevel() {
+			return JzrEventLevel.INFO;
+		}
+
+		@Override
+		public JzrEventSubLevel getSubLevel() {
+			return JzrEventSubLevel.MEDIUM;
+		}
+	}
+
+	private JzrEventFireBenchmark() {}
+
+	public static void main(String[] args) {
+		int events = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int limit = args.length > 1 ? Integer.parseInt(args[1]) : 50000;
+		int step = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+
+		// must be set before the publisher class gets loaded
+		System.setProperty("jeyzer.publisher.active", Boolean.TRUE.toString());
+		JeyzerPublisher publisher = JeyzerPublisher.instance();
+		Properties props = new Properties();
+		props.setProperty(JeyzerPublisherInit.EVENTS_INFO_LIMIT_PROPERTY, Integer.toString(limit));
+		publisher.init(props);
+		JzrMonitorHandler handler = publisher.getMonitorHandler("benchmark", null);
+
+		run(publisher, handler, events, step, false);
+		run(publisher, handler, events, step, true);
+	}
+
+	private static void run(JeyzerPublisher publisher, JzrMonitorHandler handler, int events, int step, boolean report) {
+		publisher.consumeEvents(); // empty backlog
+		StringBuilder line = new StringBuilder("ns per fire for each step of " + step + " events :");
+		long start = System.nanoTime();
+		for (int i = 1; i <= events; i++) {
+			// distinct messages : no deduplication
+			handler.fireGlobalEvent(new JzrStandardEvent(BenchmarkCode.BENCH_001, "Benchmark event " + i));
+			if (i % step == 0) {
+				long now = System.nanoTime();
+				line.append(' ').append((now - start) / step);
+				start = now;
+			}
+		}
+		if (report)
+			System.out.println(line);
+	}
+}
@@ -0,0 +1,146 @@
+package org.jeyzer.publish;
+
+/*-
+ * ---------------------------LICENSE_START---------------------------
+ * Jeyzer Publisher
+ * --
+ * Copyright (C) 2020 - 2023 Jeyzer
+ * --
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ * ----------------------------LICENSE_END----------------------------
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+public class JzrEventRingBufferTest {
+
+	@Test
+	public void testCapacityIsEnforced() {
+		// capacity not a power of 2 : the slot array is larger than the capacity
+		JzrEventRingBuffer<Integer> buffer = new JzrEventRingBuffer<>(3);
+		assertTrue(buffer.offer(1));
+		assertTrue(buffer.offer(2));
+		assertTrue(buffer.offer(3));
+		assertFalse(buffer.offer(4));
+		assertEquals(3, buffer.size());
+		assertEquals(3, buffer.capacity());
+	}
+
+	@Test
+	public void testWrapAroundKeepsFifoOrder() {
+		JzrEventRingBuffer<Integer> buffer = new JzrEventRingBuffer<>(3);
+		int next = 0;
+		int expected = 0;
+		// many rounds over the 4 slots, with a varying fill level
+		for (int round = 0; round < 1000; round++) {
+			int count = round % 3 + 1;
+			for (int i = 0; i < count; i++)
+				assertTrue(buffer.offer(next++));
+			for (int i = 0; i < count; i++)
+				assertEquals(Integer.valueOf(expected++), buffer.poll());
+			assertNull(buffer.poll());
+			assertEquals(0, buffer.size());
+		}
+	}
+
+	@Test
+	public void testEvictReturnsOldest() {
+		JzrEventRingBuffer<Integer> buffer = new JzrEventRingBuffer<>(2);
+		buffer.offer(1);
+		buffer.offer(2);
+		assertEquals(Integer.valueOf(1), buffer.evict(3));
+		assertTrue(buffer.offer(3));
+		assertEquals(Integer.valueOf(2), buffer.poll());
+		assertEquals(Integer.valueOf(3), buffer.poll());
+	}
+
+	@Test
+	public void testSnapshotDoesNotConsume() {
+		JzrEventRingBuffer<Integer> buffer = new JzrEventRingBuffer<>(4);
+		for (int i = 0; i < 6; i++) {
+			buffer.offer(i);
+			if (i % 2 == 0)
+				buffer.poll();
+		}
+		List<Integer> elements = new ArrayList<>();
+		buffer.snapshot(elements);
+		assertEquals(3, elements.size());
+		assertEquals(3, buffer.size());
+		assertEquals(elements.get(0), buffer.poll());
+	}
+
+	@Test(timeout = 60000)
+	public void testConcurrentOfferAndPoll() throws InterruptedException {
+		final int producers = 4;
+		final int consumers = 4;
+		final int perProducer = 100000;
+		final JzrEventRingBuffer<Integer> buffer = new JzrEventRingBuffer<>(64);
+		final AtomicIntegerArray received = new AtomicIntegerArray(producers * perProducer);
+		final AtomicInteger consumed = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+
+		for (int p = 0; p < producers; p++) {
+			final int base = p * perProducer;
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					await(start);
+					for (int i = 0; i < perProducer; i++)
+						while (!buffer.offer(base + i))
+							Thread.yield(); // full : wait for the consumers
+				}
+			});
+		}
+		for (int c = 0; c < consumers; c++) {
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					await(start);
+					while (consumed.get() < producers * perProducer) {
+						Integer element = buffer.poll();
+						if (element == null) {
+							Thread.yield();
+							continue;
+						}
+						received.incrementAndGet(element);
+						consumed.incrementAndGet();
+					}
+				}
+			});
+		}
+
+		for (Thread thread : threads)
+			thread.start();
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+
+		// every element received exactly once
+		for (int i = 0; i < received.length(); i++)
+			assertEquals("element " + i, 1, received.get(i));
+		assertNull(buffer.poll());
+		assertEquals(0, buffer.size());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}